@@ -0,0 +1,52 @@
+package com.nhira.abnrecipeapp.benchmarks;
+
+import com.nhira.abnrecipeapp.dto.RecipeDto;
+import com.nhira.abnrecipeapp.mapper.DtoMapper;
+import com.nhira.abnrecipeapp.model.Recipe;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DtoMapper round trip between a recipe entity with its ingredient rows and the API DTO.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappingBenchmark {
+
+    @Param({"5", "20"})
+    private int ingredientsPerRecipe;
+
+    private RecipeDto recipeDto;
+    private Recipe recipe;
+
+    @Setup
+    public void setUp() {
+        recipeDto = RecipeBenchmarkData.recipes(1, ingredientsPerRecipe).get(0);
+        recipe = DtoMapper.MAPPER.toRecipeEntity(recipeDto);
+    }
+
+    @Benchmark
+    public RecipeDto toRecipeDto() {
+        return DtoMapper.MAPPER.toRecipeDto(recipe);
+    }
+
+    @Benchmark
+    public Recipe toRecipeEntity() {
+        return DtoMapper.MAPPER.toRecipeEntity(recipeDto);
+    }
+}
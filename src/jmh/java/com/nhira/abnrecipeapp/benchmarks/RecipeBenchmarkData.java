@@ -0,0 +1,67 @@
+package com.nhira.abnrecipeapp.benchmarks;
+
+import com.nhira.abnrecipeapp.dto.IngredientDto;
+import com.nhira.abnrecipeapp.dto.RecipeDto;
+import com.nhira.abnrecipeapp.utils.enums.RecipeClassification;
+import com.nhira.abnrecipeapp.utils.enums.UnitOfMeasure;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Deterministic recipe generator so every benchmark run works on the same data: a fixed seed, a 200 word
+ * ingredient vocabulary and instructions of a few hundred characters, roughly what the editorial catalogue holds.
+ */
+public final class RecipeBenchmarkData {
+    public static final long SEED = 20221128L;
+    public static final int VOCABULARY_SIZE = 200;
+
+    private static final String[] VERBS = {"chop", "stir", "bake", "simmer", "whisk", "fold", "season", "grill", "blend", "roast"};
+    private static final UnitOfMeasure[] UNITS = UnitOfMeasure.values();
+
+    private RecipeBenchmarkData() {
+    }
+
+    public static String ingredientName(int index) {
+        return "ingredient" + index;
+    }
+
+    public static List<RecipeDto> recipes(int count, int ingredientsPerRecipe) {
+        Random random = new Random(SEED);
+        List<RecipeDto> recipes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            recipes.add(recipe(random, i, ingredientsPerRecipe));
+        }
+        return recipes;
+    }
+
+    private static RecipeDto recipe(Random random, int index, int ingredientsPerRecipe) {
+        List<IngredientDto> ingredients = new ArrayList<>(ingredientsPerRecipe);
+        for (int i = 0; i < ingredientsPerRecipe; i++) {
+            ingredients.add(IngredientDto.builder()
+                    .name(ingredientName(random.nextInt(VOCABULARY_SIZE)))
+                    .quantity(1 + random.nextInt(500))
+                    .unitOfMeasure(UNITS[random.nextInt(UNITS.length)])
+                    .build());
+        }
+        StringBuilder instructions = new StringBuilder();
+        for (int step = 0; step < 12; step++) {
+            instructions.append(VERBS[random.nextInt(VERBS.length)])
+                    .append(" the ")
+                    .append(ingredients.get(random.nextInt(ingredients.size())).getName())
+                    .append(" for ")
+                    .append(1 + random.nextInt(30))
+                    .append(" minutes. ");
+        }
+        return RecipeDto.builder()
+                .id(new UUID(random.nextLong(), random.nextLong()).toString())
+                .name("Recipe " + index)
+                .numberOfServings(1 + random.nextInt(8))
+                .classification(random.nextInt(3) == 0 ? RecipeClassification.VEGETARIAN : RecipeClassification.NON_VEGETARIAN)
+                .ingredientList(ingredients)
+                .instructions(instructions.toString())
+                .build();
+    }
+}
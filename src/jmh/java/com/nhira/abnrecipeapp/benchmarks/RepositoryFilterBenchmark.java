@@ -0,0 +1,115 @@
+package com.nhira.abnrecipeapp.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nhira.abnrecipeapp.AbnRecipeAppApplication;
+import com.nhira.abnrecipeapp.dto.RecipeDto;
+import com.nhira.abnrecipeapp.dto.RecipeImportResultDto;
+import com.nhira.abnrecipeapp.model.Recipe;
+import com.nhira.abnrecipeapp.repository.RecipeRepository;
+import com.nhira.abnrecipeapp.service.api.RecipeImportService;
+import com.nhira.abnrecipeapp.utils.ApiResponse;
+import com.nhira.abnrecipeapp.utils.enums.RecipeClassification;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * RecipeRepository.filter against an embedded H2 seeded through the bulk import, with the in-memory search
+ * index switched off so every call reaches the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryFilterBenchmark {
+
+    @Param({"1000", "10000"})
+    private int recipeCount;
+
+    private ConfigurableApplicationContext context;
+    private RecipeRepository recipeRepository;
+    private TransactionTemplate readOnlyTransaction;
+    private final Pageable firstPage = PageRequest.of(0, 10, Sort.by("dateCreated").descending());
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        context = new SpringApplicationBuilder(AbnRecipeAppApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.com.nhira.abnrecipeapp=WARN",
+                        "recipe.search-index.enabled=false")
+                .run();
+        recipeRepository = context.getBean(RecipeRepository.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+
+        ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+        for (RecipeDto recipeDto : RecipeBenchmarkData.recipes(recipeCount, 8)) {
+            ndjson.write(objectMapper.writeValueAsBytes(recipeDto));
+            ndjson.write('\n');
+        }
+        ApiResponse<RecipeImportResultDto> seeded = context.getBean(RecipeImportService.class)
+                .importRecipes(new ByteArrayInputStream(ndjson.toByteArray()), true);
+        if (!seeded.isSuccessful()) {
+            throw new IllegalStateException("Seeding failed: " + seeded.getBody().getFailures());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<Recipe> filterByClassification() {
+        return filter(() -> recipeRepository.filter(RecipeClassification.VEGETARIAN.name(), 0, null, null, false, firstPage));
+    }
+
+    @Benchmark
+    public Page<Recipe> filterByIncludedIngredient() {
+        return filter(() -> recipeRepository.filter(null, 0, null, RecipeBenchmarkData.ingredientName(7), true, firstPage));
+    }
+
+    @Benchmark
+    public Page<Recipe> filterByExcludedIngredient() {
+        return filter(() -> recipeRepository.filter(null, 0, null, RecipeBenchmarkData.ingredientName(7), false, firstPage));
+    }
+
+    @Benchmark
+    public Page<Recipe> filterByInstructionsAndServings() {
+        return filter(() -> recipeRepository.filter(null, 4, "simmer", null, false, firstPage));
+    }
+
+    private Page<Recipe> filter(Supplier<Page<Recipe>> query) {
+        return readOnlyTransaction.execute(status -> query.get());
+    }
+}
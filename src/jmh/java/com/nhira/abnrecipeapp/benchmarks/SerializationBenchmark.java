@@ -0,0 +1,71 @@
+package com.nhira.abnrecipeapp.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nhira.abnrecipeapp.AbnRecipeAppApplication;
+import com.nhira.abnrecipeapp.dto.RecipeDto;
+import com.nhira.abnrecipeapp.utils.ApiResponse;
+import com.nhira.abnrecipeapp.utils.Utils;
+import com.nhira.abnrecipeapp.utils.enums.ResponseCode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The application's ObjectMapper, including the custom OffsetDateTime serializer and deserializer, and the
+ * ApiResponse envelope every endpoint wraps its body in.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private RecipeDto recipeDto;
+    private ApiResponse<RecipeDto> response;
+    private OffsetDateTime dateTime;
+    private String dateTimeJson;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        objectMapper = new AbnRecipeAppApplication().objectMapper();
+        recipeDto = RecipeBenchmarkData.recipes(1, 10).get(0);
+        response = Utils.createResponse(recipeDto, true, ResponseCode.SUCCESS);
+        dateTime = OffsetDateTime.of(2022, 11, 28, 10, 15, 30, 123_456_000, ZoneOffset.ofHours(1));
+        dateTimeJson = objectMapper.writeValueAsString(dateTime);
+    }
+
+    @Benchmark
+    public String writeOffsetDateTime() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(dateTime);
+    }
+
+    @Benchmark
+    public OffsetDateTime readOffsetDateTime() throws JsonProcessingException {
+        return objectMapper.readValue(dateTimeJson, OffsetDateTime.class);
+    }
+
+    @Benchmark
+    public ApiResponse<RecipeDto> createResponse() {
+        return Utils.createResponse(recipeDto, true, ResponseCode.SUCCESS);
+    }
+
+    @Benchmark
+    public byte[] writeResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,44 @@
+package com.nhira.abnrecipeapp.cache;
+
+import com.nhira.abnrecipeapp.config.CacheConfig;
+import com.nhira.abnrecipeapp.events.RecipeChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Evicts cached recipe reads once a change to a recipe commits. The single recipe entry is dropped by id, while
+ * cached list and filter pages are cleared entirely because any write can move a recipe into or out of them.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RecipeCacheInvalidator {
+
+    private final CacheManager cacheManager;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        log.debug("Evicting cached reads for recipe {}", event.getRecipeId());
+        evict(CacheConfig.RECIPES, event.getRecipeId());
+        clear(CacheConfig.RECIPE_PAGES);
+        clear(CacheConfig.RECIPE_FILTERS);
+    }
+
+    private void evict(String cacheName, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.evict(key);
+        }
+    }
+
+    private void clear(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.nhira.abnrecipeapp.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Bounded Caffeine caches (W-TinyLFU eviction, TTL) in front of the recipe reads. Statistics are recorded so the
+ * actuator publishes hit ratio, size and eviction metrics for every cache.
+ * <p>
+ * The recipe reads cache with {@code sync = true}: Caffeine computes a missing key once while concurrent callers for
+ * that key wait for the result, so a burst of identical reads costs a single query.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String RECIPES = "recipes";
+    public static final String RECIPE_PAGES = "recipePages";
+    public static final String RECIPE_FILTERS = "recipeFilters";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${recipe.cache.recipes:maximumSize=10000,expireAfterWrite=10m}") String recipesSpec,
+                                     @Value("${recipe.cache.recipe-pages:maximumSize=100,expireAfterWrite=1m}") String recipePagesSpec,
+                                     @Value("${recipe.cache.recipe-filters:maximumSize=1000,expireAfterWrite=1m}") String recipeFiltersSpec) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(RECIPES, Caffeine.from(recipesSpec).recordStats().build());
+        cacheManager.registerCustomCache(RECIPE_PAGES, Caffeine.from(recipePagesSpec).recordStats().build());
+        cacheManager.registerCustomCache(RECIPE_FILTERS, Caffeine.from(recipeFiltersSpec).recordStats().build());
+        return cacheManager;
+    }
+}
@@ -0,0 +1,67 @@
+package com.nhira.abnrecipeapp.config;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Runs expensive recipe queries on a bounded, dedicated pool when {@code recipe.async.enabled} is set, so a slow
+ * query holds one of its threads instead of a servlet thread. Once the pool and its queue are full, new queries are
+ * rejected rather than queued without bound. When disabled, queries run on the calling thread.
+ * <p>
+ * Each query runs in a read-only transaction bounded by {@code recipe.async.query-timeout}, whose remaining time
+ * Spring applies as the JDBC timeout of every statement. A query still running when the request times out is then
+ * cancelled by the database instead of holding its thread until it finishes.
+ */
+@Component
+public class RecipeQueryExecutor implements DisposableBean {
+
+    private final ThreadPoolTaskExecutor executor;
+    private final TransactionTemplate queryTransaction;
+
+    public RecipeQueryExecutor(@Value("${recipe.async.enabled:false}") boolean enabled,
+                               @Value("${recipe.async.pool-size:8}") int poolSize,
+                               @Value("${recipe.async.queue-capacity:100}") int queueCapacity,
+                               @Value("${recipe.async.query-timeout:30s}") Duration queryTimeout,
+                               PlatformTransactionManager transactionManager) {
+        if (!enabled) {
+            this.executor = null;
+            this.queryTransaction = null;
+            return;
+        }
+        this.executor = new ThreadPoolTaskExecutor();
+        this.executor.setCorePoolSize(poolSize);
+        this.executor.setMaxPoolSize(poolSize);
+        this.executor.setQueueCapacity(queueCapacity);
+        this.executor.setThreadNamePrefix("recipe-query-");
+        this.executor.initialize();
+        this.queryTransaction = new TransactionTemplate(transactionManager);
+        this.queryTransaction.setReadOnly(true);
+        // Hibernate floors the time left to whole seconds, so a one second timeout would expire straight away
+        this.queryTransaction.setTimeout((int) Math.max(2, (queryTimeout.toMillis() + 999) / 1000));
+    }
+
+    /**
+     * @throws RejectedExecutionException when the pool and its queue are full
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> query) {
+        return executor == null
+                ? CompletableFuture.completedFuture(query.get())
+                : CompletableFuture.supplyAsync(() -> queryTransaction.execute(status -> query.get()), executor);
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+}
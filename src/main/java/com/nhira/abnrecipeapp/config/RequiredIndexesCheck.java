@@ -0,0 +1,112 @@
+package com.nhira.abnrecipeapp.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Fails startup when an index the recipe queries rely on is missing, e.g. because a migration was skipped or an
+ * index was dropped by hand, rather than letting every listing fall back to sorting the whole table. Runs once all
+ * singletons, including the Flyway migration, are in place and before the web server takes traffic.
+ */
+@Slf4j
+@Component
+public class RequiredIndexesCheck implements SmartInitializingSingleton {
+
+    private static final Map<String, List<String>> REQUIRED_INDEXES = Map.of(
+            "recipe", List.of(
+                    "idx_recipe_date_created",
+                    "idx_recipe_servings_date_created",
+                    "idx_recipe_classification_servings_date_created",
+                    "idx_recipe_last_updated"),
+            "ingredient", List.of(
+                    "idx_ingredient_normalized_name_recipe",
+                    "idx_ingredient_recipe"),
+            "recipe_change", List.of(
+                    "idx_recipe_change_type_changed_at"));
+
+    private final DataSource dataSource;
+    private final boolean enabled;
+    private final boolean fullTextSearchEnabled;
+    private final boolean trigramSearchEnabled;
+
+    public RequiredIndexesCheck(DataSource dataSource,
+                                @Value("${recipe.index-check.enabled:true}") boolean enabled,
+                                @Value("${recipe.full-text-search.enabled:false}") boolean fullTextSearchEnabled,
+                                @Value("${recipe.trigram-search.enabled:false}") boolean trigramSearchEnabled) {
+        this.dataSource = dataSource;
+        this.enabled = enabled;
+        this.fullTextSearchEnabled = fullTextSearchEnabled;
+        this.trigramSearchEnabled = trigramSearchEnabled;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            log.warn("Required index check is disabled");
+            return;
+        }
+        List<String> missing = findMissingIndexes();
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("Missing database indexes " + missing
+                    + ", run the schema migrations or set recipe.index-check.enabled=false");
+        }
+        log.info("All required database indexes are present");
+    }
+
+    List<String> findMissingIndexes() {
+        List<String> missing = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (Map.Entry<String, List<String>> table : requiredIndexes().entrySet()) {
+                Set<String> present = indexNames(metaData, table.getKey());
+                table.getValue().stream()
+                        .filter(index -> !present.contains(index))
+                        .forEach(missing::add);
+            }
+        } catch (SQLException exception) {
+            throw new IllegalStateException("Could not read the database indexes", exception);
+        }
+        return missing;
+    }
+
+    private Map<String, List<String>> requiredIndexes() {
+        Map<String, List<String>> required = new LinkedHashMap<>();
+        REQUIRED_INDEXES.forEach((table, indexes) -> required.put(table, new ArrayList<>(indexes)));
+        if (fullTextSearchEnabled) {
+            required.get("recipe").add("idx_recipe_instructions_tsv");
+        }
+        if (trigramSearchEnabled) {
+            required.get("ingredient").add("idx_ingredient_normalized_name_trgm");
+        }
+        return required;
+    }
+
+    private static Set<String> indexNames(DatabaseMetaData metaData, String table) throws SQLException {
+        String tableName = metaData.storesUpperCaseIdentifiers() ? table.toUpperCase(Locale.ROOT) : table;
+        Set<String> names = new HashSet<>();
+        try (ResultSet indexes = metaData.getIndexInfo(null, null, tableName, false, true)) {
+            while (indexes.next()) {
+                String name = indexes.getString("INDEX_NAME");
+                if (name != null) {
+                    names.add(name.toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        return names;
+    }
+}
@@ -1,78 +1,420 @@
 package com.nhira.abnrecipeapp.controller;
 
+import com.nhira.abnrecipeapp.config.RecipeQueryExecutor;
+import com.nhira.abnrecipeapp.dto.CursorPageDto;
+import com.nhira.abnrecipeapp.dto.RecipeBatchDto;
+import com.nhira.abnrecipeapp.dto.RecipeChangesDto;
 import com.nhira.abnrecipeapp.dto.RecipeDto;
+import com.nhira.abnrecipeapp.dto.RecipeFacetsDto;
 import com.nhira.abnrecipeapp.dto.RecipeFilterDto;
+import com.nhira.abnrecipeapp.dto.RecipeIdsDto;
+import com.nhira.abnrecipeapp.dto.RecipeImportResultDto;
+import com.nhira.abnrecipeapp.dto.RecipeSyncDto;
+import com.nhira.abnrecipeapp.dto.ShoppingListDto;
+import com.nhira.abnrecipeapp.dto.ShoppingListRequestDto;
+import com.nhira.abnrecipeapp.events.RecipeChangeStream;
+import com.nhira.abnrecipeapp.exceptions.RecipeConflictException;
 import com.nhira.abnrecipeapp.exceptions.RecipeNotFoundException;
+import com.nhira.abnrecipeapp.service.api.RecipeChangeService;
+import com.nhira.abnrecipeapp.service.api.RecipeExportService;
+import com.nhira.abnrecipeapp.service.api.RecipeImportService;
 import com.nhira.abnrecipeapp.service.api.RecipeService;
 import com.nhira.abnrecipeapp.utils.ApiResponse;
+import com.nhira.abnrecipeapp.utils.RecipeFields;
+import com.nhira.abnrecipeapp.utils.RecipeSyncToken;
+import com.nhira.abnrecipeapp.utils.RecipeVersion;
+import com.nhira.abnrecipeapp.utils.ServingsScaler;
 import com.nhira.abnrecipeapp.utils.enums.RecipeClassification;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
 
 @RestController
+@Profile("!reactive")
 @RequiredArgsConstructor
 @RequestMapping("/recipes")
 public class RecipeController {
 
+    private static final int MAX_SUGGESTIONS = 50;
+    private static final int MAX_TOP_INGREDIENTS = 50;
+    private static final int MAX_CHANGES = 1000;
+    private static final int MAX_SYNC_SIZE = 500;
+
     private final RecipeService recipeService;
+    private final RecipeImportService recipeImportService;
+    private final RecipeExportService recipeExportService;
+    private final RecipeQueryExecutor recipeQueryExecutor;
+    private final RecipeChangeService recipeChangeService;
+    private final RecipeChangeStream recipeChangeStream;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public ApiResponse<RecipeDto> createRecipe(@Valid @RequestBody RecipeDto recipeDto) {
-        return recipeService.createRecipe(recipeDto);
+        try {
+            return recipeService.createRecipe(recipeDto);
+        } catch (DataIntegrityViolationException exception) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Recipe with id " + recipeDto.getId() + " already exists", exception);
+        }
+    }
+
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Parameter(in = ParameterIn.HEADER, name = HttpHeaders.CONTENT_TYPE, schema = @Schema(type = "string", example = MediaType.APPLICATION_NDJSON_VALUE, description = "application/json for a JSON array of recipes, application/x-ndjson for one recipe per line"))
+    public ApiResponse<RecipeImportResultDto> importRecipes(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body) throws IOException {
+        return recipeImportService.importRecipes(body,
+                MediaType.APPLICATION_NDJSON.includes(contentType));
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Parameter(in = ParameterIn.DEFAULT, name = "numberOfServings", schema = @Schema(type = "long", defaultValue = "0", description = "Number of people recipe can serve, 0 for any"))
+    public void exportRecipes(
+            @RequestParam(value = "ingredientName", defaultValue = "", required = false) String ingredientName,
+            @RequestParam(value = "instructionSearch", defaultValue = "", required = false) String instructionSearch,
+            @RequestParam(value = "includeIngredient", defaultValue = "true", required = false) boolean includeIngredient,
+            @RequestParam(value = "numberOfServings", defaultValue = "0", required = false) long numberOfServings,
+            @RequestParam(value = "classification", defaultValue = "") RecipeClassification classification,
+            HttpServletResponse response) throws IOException {
+        final RecipeFilterDto recipeFilter = RecipeFilterDto.builder()
+                .ingredientName(ingredientName)
+                .includeIngredient(includeIngredient)
+                .instructionSearch(instructionSearch)
+                .numberOfServings(numberOfServings)
+                .classification(classification)
+                .build();
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        recipeExportService.exportRecipes(recipeFilter, response.getOutputStream());
     }
 
     @GetMapping("/find-all")
     @Parameter(in = ParameterIn.DEFAULT, name = "page", schema = @Schema(type = "int", defaultValue = "0", description = "The response is paginated and this field represents the page number"))
     @Parameter(in = ParameterIn.DEFAULT, name = "size", schema = @Schema(type = "int", defaultValue = "10", description = "The response is paginated and this field represents the page size"))
-    public Page<RecipeDto> getAllRecipes(
+    @Parameter(in = ParameterIn.DEFAULT, name = "servings", schema = @Schema(type = "long", description = "Number of people to rescale the ingredient quantities to, the stored servings when omitted"))
+    public ResponseEntity<Page<RecipeDto>> getAllRecipes(
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "10") int size,
+            @RequestParam(value = "servings", required = false) Long servings,
+            WebRequest request) {
+        checkServings(servings);
+        return ifModified(request, recipeService.getRecipesVersion(),
+                () -> scale(recipeService.getAllRecipes(page, size), servings));
+    }
+
+    @GetMapping(value = "/find-all", params = {"fields", "!cursor"})
+    @Parameter(in = ParameterIn.DEFAULT, name = "fields", schema = @Schema(type = "string", example = "id,name,classification", description = "Comma separated recipe fields to return; instructions and ingredientList are only read when requested"))
+    public ResponseEntity<Page<Map<String, Object>>> getAllRecipeFields(
+            @RequestParam(value = "fields") String fields,
             @RequestParam(value = "page", defaultValue = "0") int page,
-            @RequestParam(value = "size", defaultValue = "10") int size) {
-        return recipeService.getAllRecipes(page, size);
+            @RequestParam(value = "size", defaultValue = "10") int size,
+            WebRequest request) {
+        try {
+            RecipeFields recipeFields = RecipeFields.parse(fields);
+            return ifModified(request, recipeService.getRecipesVersion(),
+                    () -> recipeService.getAllRecipes(page, size, recipeFields));
+        } catch (IllegalArgumentException exception) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    exception.getMessage(), exception);
+        }
+    }
+
+    @GetMapping(value = "/find-all", params = "cursor")
+    @Parameter(in = ParameterIn.DEFAULT, name = "cursor", schema = @Schema(type = "string", description = "Opaque cursor returned as nextCursor by the previous call, empty for the first slice"))
+    @Parameter(in = ParameterIn.DEFAULT, name = "size", schema = @Schema(type = "int", defaultValue = "10", description = "The maximum number of recipes in the slice"))
+    @Parameter(in = ParameterIn.DEFAULT, name = "includeTotal", schema = @Schema(type = "boolean", defaultValue = "false", description = "Whether to also count all recipes"))
+    @Parameter(in = ParameterIn.DEFAULT, name = "servings", schema = @Schema(type = "long", description = "Number of people to rescale the ingredient quantities to, the stored servings when omitted"))
+    public CursorPageDto<RecipeDto> getAllRecipesByCursor(
+            @RequestParam(value = "cursor") String cursor,
+            @RequestParam(value = "size", defaultValue = "10") int size,
+            @RequestParam(value = "includeTotal", defaultValue = "false") boolean includeTotal,
+            @RequestParam(value = "servings", required = false) Long servings) {
+        checkServings(servings);
+        try {
+            return scale(recipeService.getAllRecipes(cursor, size, includeTotal), servings);
+        } catch (IllegalArgumentException exception) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    exception.getMessage(), exception);
+        }
     }
 
     @GetMapping("/find")
-    @Parameter(in = ParameterIn.DEFAULT, name = "ingredientName", schema = @Schema(type = "String", example = "salmon", description = "Ingredient name"))
+    @Parameter(in = ParameterIn.DEFAULT, name = "ingredientName", schema = @Schema(type = "String", example = "salmon", description = "Ingredient name, matched as a whole name ignoring case and surrounding spaces"))
     @Parameter(in = ParameterIn.DEFAULT, name = "includeIngredient", schema = @Schema(type = "boolean", defaultValue = "true", description = "Says whether to include or exclude specified ingredient"))
     @Parameter(in = ParameterIn.DEFAULT, name = "numberOfServings", schema = @Schema(type = "long", defaultValue = "1", description = "Number of people recipe can serve"))
     @Parameter(in = ParameterIn.DEFAULT, name = "classification", schema = @Schema(type = "RecipeClassification", defaultValue = "VEGETARIAN", description = "Whether the recipe is vegetarian or not"))
-    public Page<RecipeDto> getRecipes(
+    @Parameter(in = ParameterIn.DEFAULT, name = "fuzzyIngredient", schema = @Schema(type = "boolean", defaultValue = "false", description = "Whether to match a misspelled ingredient name to the closest known one"))
+    @Parameter(in = ParameterIn.DEFAULT, name = "servings", schema = @Schema(type = "long", description = "Number of people to rescale the ingredient quantities to, the stored servings when omitted"))
+    public CompletableFuture<ResponseEntity<Page<RecipeDto>>> getRecipes(
+            @RequestParam(value = "ingredientName", defaultValue = "", required = false) String ingredientName,
+            @RequestParam(value = "instructionSearch", defaultValue = "", required = false) String instructionSearch,
+            @RequestParam(value = "includeIngredient", defaultValue = "true", required = false) boolean includeIngredient,
+            @RequestParam(value = "numberOfServings", defaultValue = "1", required = false) long numberOfServings,
+            @RequestParam(value = "classification", defaultValue = "") RecipeClassification classification,
+            @RequestParam(value = "fuzzyIngredient", defaultValue = "false") boolean fuzzyIngredient,
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "10") int size,
+            @RequestParam(value = "servings", required = false) Long servings,
+            WebRequest request) {
+        checkServings(servings);
+        final RecipeFilterDto recipeFilter = RecipeFilterDto.builder()
+                .ingredientName(ingredientName)
+                .includeIngredient(includeIngredient)
+                .instructionSearch(instructionSearch)
+                .numberOfServings(numberOfServings)
+                .classification(classification)
+                .fuzzyIngredient(fuzzyIngredient)
+                .build();
+        return ifModifiedAsync(request, recipeService.getRecipesVersion(),
+                () -> scale(recipeService.filterRecipes(recipeFilter, page, size), servings));
+    }
+
+    @GetMapping(value = "/find/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Parameter(in = ParameterIn.DEFAULT, name = "numberOfServings", schema = @Schema(type = "long", defaultValue = "1", description = "Number of people recipe can serve"))
+    @Parameter(in = ParameterIn.DEFAULT, name = "servings", schema = @Schema(type = "long", description = "Number of people to rescale the ingredient quantities to, the stored servings when omitted"))
+    public void streamRecipes(
             @RequestParam(value = "ingredientName", defaultValue = "", required = false) String ingredientName,
             @RequestParam(value = "instructionSearch", defaultValue = "", required = false) String instructionSearch,
             @RequestParam(value = "includeIngredient", defaultValue = "true", required = false) boolean includeIngredient,
             @RequestParam(value = "numberOfServings", defaultValue = "1", required = false) long numberOfServings,
             @RequestParam(value = "classification", defaultValue = "") RecipeClassification classification,
+            @RequestParam(value = "fuzzyIngredient", defaultValue = "false") boolean fuzzyIngredient,
+            @RequestParam(value = "servings", required = false) Long servings,
+            HttpServletResponse response) throws IOException {
+        checkServings(servings);
+        final RecipeFilterDto recipeFilter = RecipeFilterDto.builder()
+                .ingredientName(ingredientName)
+                .includeIngredient(includeIngredient)
+                .instructionSearch(instructionSearch)
+                .numberOfServings(numberOfServings)
+                .classification(classification)
+                .fuzzyIngredient(fuzzyIngredient)
+                .build();
+        response.setContentType(MediaType.TEXT_EVENT_STREAM_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        recipeExportService.streamRecipes(recipeFilter, servings, response.getOutputStream());
+    }
+
+    @GetMapping(value = "/find", params = {"fields", "!cursor"})
+    @Parameter(in = ParameterIn.DEFAULT, name = "fields", schema = @Schema(type = "string", example = "id,name,classification", description = "Comma separated recipe fields to return; instructions and ingredientList are only read when requested"))
+    public CompletableFuture<ResponseEntity<Page<Map<String, Object>>>> getRecipeFields(
+            @RequestParam(value = "ingredientName", defaultValue = "", required = false) String ingredientName,
+            @RequestParam(value = "instructionSearch", defaultValue = "", required = false) String instructionSearch,
+            @RequestParam(value = "includeIngredient", defaultValue = "true", required = false) boolean includeIngredient,
+            @RequestParam(value = "numberOfServings", defaultValue = "1", required = false) long numberOfServings,
+            @RequestParam(value = "classification", defaultValue = "") RecipeClassification classification,
+            @RequestParam(value = "fuzzyIngredient", defaultValue = "false") boolean fuzzyIngredient,
+            @RequestParam(value = "fields") String fields,
             @RequestParam(value = "page", defaultValue = "0") int page,
-            @RequestParam(value = "size", defaultValue = "10") int size) {
+            @RequestParam(value = "size", defaultValue = "10") int size,
+            WebRequest request) {
+        final RecipeFilterDto recipeFilter = RecipeFilterDto.builder()
+                .ingredientName(ingredientName)
+                .includeIngredient(includeIngredient)
+                .instructionSearch(instructionSearch)
+                .numberOfServings(numberOfServings)
+                .classification(classification)
+                .fuzzyIngredient(fuzzyIngredient)
+                .build();
+        try {
+            RecipeFields recipeFields = RecipeFields.parse(fields);
+            return ifModifiedAsync(request, recipeService.getRecipesVersion(),
+                    () -> recipeService.filterRecipes(recipeFilter, page, size, recipeFields));
+        } catch (IllegalArgumentException exception) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    exception.getMessage(), exception);
+        }
+    }
+
+    @GetMapping(value = "/find", params = "cursor")
+    @Parameter(in = ParameterIn.DEFAULT, name = "cursor", schema = @Schema(type = "string", description = "Opaque cursor returned as nextCursor by the previous call, empty for the first slice"))
+    @Parameter(in = ParameterIn.DEFAULT, name = "includeTotal", schema = @Schema(type = "boolean", defaultValue = "false", description = "Whether to also count all matching recipes"))
+    @Parameter(in = ParameterIn.DEFAULT, name = "servings", schema = @Schema(type = "long", description = "Number of people to rescale the ingredient quantities to, the stored servings when omitted"))
+    public CompletableFuture<CursorPageDto<RecipeDto>> getRecipesByCursor(
+            @RequestParam(value = "ingredientName", defaultValue = "", required = false) String ingredientName,
+            @RequestParam(value = "instructionSearch", defaultValue = "", required = false) String instructionSearch,
+            @RequestParam(value = "includeIngredient", defaultValue = "true", required = false) boolean includeIngredient,
+            @RequestParam(value = "numberOfServings", defaultValue = "1", required = false) long numberOfServings,
+            @RequestParam(value = "classification", defaultValue = "") RecipeClassification classification,
+            @RequestParam(value = "fuzzyIngredient", defaultValue = "false") boolean fuzzyIngredient,
+            @RequestParam(value = "cursor") String cursor,
+            @RequestParam(value = "size", defaultValue = "10") int size,
+            @RequestParam(value = "includeTotal", defaultValue = "false") boolean includeTotal,
+            @RequestParam(value = "servings", required = false) Long servings) {
+        checkServings(servings);
         final RecipeFilterDto recipeFilter = RecipeFilterDto.builder()
                 .ingredientName(ingredientName)
                 .includeIngredient(includeIngredient)
                 .instructionSearch(instructionSearch)
                 .numberOfServings(numberOfServings)
                 .classification(classification)
+                .fuzzyIngredient(fuzzyIngredient)
                 .build();
-        return recipeService.filterRecipes(recipeFilter, page, size);
+        return submit(() -> {
+            try {
+                return scale(recipeService.filterRecipes(recipeFilter, cursor, size, includeTotal), servings);
+            } catch (IllegalArgumentException exception) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        exception.getMessage(), exception);
+            }
+        });
+    }
+
+    @GetMapping("/facets")
+    @Parameter(in = ParameterIn.DEFAULT, name = "numberOfServings", schema = @Schema(type = "long", defaultValue = "0", description = "Number of people recipe can serve, 0 for any"))
+    @Parameter(in = ParameterIn.DEFAULT, name = "topIngredients", schema = @Schema(type = "int", defaultValue = "10", description = "How many of the most used ingredients to count, at most " + MAX_TOP_INGREDIENTS))
+    public ResponseEntity<ApiResponse<RecipeFacetsDto>> getFacets(
+            @RequestParam(value = "ingredientName", defaultValue = "", required = false) String ingredientName,
+            @RequestParam(value = "instructionSearch", defaultValue = "", required = false) String instructionSearch,
+            @RequestParam(value = "includeIngredient", defaultValue = "true", required = false) boolean includeIngredient,
+            @RequestParam(value = "numberOfServings", defaultValue = "0", required = false) long numberOfServings,
+            @RequestParam(value = "classification", defaultValue = "") RecipeClassification classification,
+            @RequestParam(value = "fuzzyIngredient", defaultValue = "false") boolean fuzzyIngredient,
+            @RequestParam(value = "topIngredients", defaultValue = "10") int topIngredients,
+            WebRequest request) {
+        if (topIngredients < 1 || topIngredients > MAX_TOP_INGREDIENTS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "topIngredients must be between 1 and " + MAX_TOP_INGREDIENTS);
+        }
+        final RecipeFilterDto recipeFilter = RecipeFilterDto.builder()
+                .ingredientName(ingredientName)
+                .includeIngredient(includeIngredient)
+                .instructionSearch(instructionSearch)
+                .numberOfServings(numberOfServings)
+                .classification(classification)
+                .fuzzyIngredient(fuzzyIngredient)
+                .build();
+        return ifModified(request, recipeService.getRecipesVersion(),
+                () -> recipeService.getFacets(recipeFilter, topIngredients));
+    }
+
+    @GetMapping("/changes")
+    @Parameter(in = ParameterIn.DEFAULT, name = "since", schema = @Schema(type = "long", defaultValue = "0", description = "Sequence number of the last change already seen, nextSince of the previous call"))
+    @Parameter(in = ParameterIn.DEFAULT, name = "limit", schema = @Schema(type = "int", defaultValue = "100", description = "Maximum number of changes, at most " + MAX_CHANGES))
+    public ApiResponse<RecipeChangesDto> getChanges(
+            @RequestParam(value = "since", defaultValue = "0") long since,
+            @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        if (since < 0 || limit < 1 || limit > MAX_CHANGES) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "since must not be negative and limit must be between 1 and " + MAX_CHANGES);
+        }
+        return recipeChangeService.getChanges(since, limit);
+    }
+
+    @GetMapping(value = "/changes/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Parameter(in = ParameterIn.DEFAULT, name = "since", schema = @Schema(type = "long", description = "Sequence number of the last change already seen, only new changes when omitted"))
+    @Parameter(in = ParameterIn.HEADER, name = "Last-Event-ID", schema = @Schema(type = "long", description = "Id of the last event received, sent by reconnecting clients; takes precedence over since"))
+    public SseEmitter streamChanges(
+            @RequestParam(value = "since", required = false) Long since,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        long position = lastEventId != null ? lastEventId
+                : since != null ? since
+                : recipeChangeService.getLatestSequence();
+        if (position < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "since must not be negative");
+        }
+        return recipeChangeStream.subscribe(position);
+    }
+
+    @GetMapping("/sync")
+    @Parameter(in = ParameterIn.DEFAULT, name = "since", schema = @Schema(type = "string", format = "date-time", description = "Time of the last sync, everything when omitted; ignored with a continuation"))
+    @Parameter(in = ParameterIn.DEFAULT, name = "continuation", schema = @Schema(type = "string", description = "continuation of the previous chunk"))
+    @Parameter(in = ParameterIn.DEFAULT, name = "size", schema = @Schema(type = "int", defaultValue = "100", description = "Maximum number of changes, at most " + MAX_SYNC_SIZE))
+    public ApiResponse<RecipeSyncDto> sync(
+            @RequestParam(value = "since", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime since,
+            @RequestParam(value = "continuation", required = false) String continuation,
+            @RequestParam(value = "size", defaultValue = "100") int size) {
+        if (size < 1 || size > MAX_SYNC_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "size must be between 1 and " + MAX_SYNC_SIZE);
+        }
+        try {
+            RecipeSyncToken after = continuation != null ? RecipeSyncToken.decode(continuation)
+                    : RecipeSyncToken.since(since != null ? since : Instant.EPOCH.atOffset(ZoneOffset.UTC));
+            return recipeChangeService.sync(after, size);
+        } catch (IllegalArgumentException exception) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    exception.getMessage(), exception);
+        }
+    }
+
+    @GetMapping("/ingredients/suggest")
+    @Parameter(in = ParameterIn.DEFAULT, name = "prefix", schema = @Schema(type = "string", example = "salm", description = "What the user typed so far"))
+    @Parameter(in = ParameterIn.DEFAULT, name = "limit", schema = @Schema(type = "int", defaultValue = "10", description = "Maximum number of suggestions, at most " + MAX_SUGGESTIONS))
+    public ApiResponse<List<String>> suggestIngredients(
+            @RequestParam(value = "prefix") String prefix,
+            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "limit must be between 1 and " + MAX_SUGGESTIONS);
+        }
+        return recipeService.suggestIngredients(prefix, limit);
     }
 
     @GetMapping("/{id}")
     @Parameter(in = ParameterIn.PATH, name = "id", schema = @Schema(type = "string", example = "c8c3cc08-6e19-11ed-a1eb-0242ac120002", description = "Unique recipe ID"))
-    public ApiResponse<RecipeDto> getRecipe(@PathVariable("id") String id) {
+    @Parameter(in = ParameterIn.DEFAULT, name = "servings", schema = @Schema(type = "long", description = "Number of people to rescale the ingredient quantities to, the stored servings when omitted"))
+    public ResponseEntity<ApiResponse<RecipeDto>> getRecipe(
+            @PathVariable("id") String id,
+            @RequestParam(value = "servings", required = false) Long servings,
+            WebRequest request) {
+        checkServings(servings);
         try {
-            return recipeService.getRecipe(id);
+            ApiResponse<RecipeDto> recipe = recipeService.getRecipe(id);
+            return ifModified(request, servedVersion(recipe.getBody(), recipeService.getRecipeVersion(id)),
+                    () -> recipe.map(served -> ServingsScaler.scale(served, servings)));
         } catch (RecipeNotFoundException exception) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND,
                     exception.getMessage(), exception);
         }
     }
 
+    @PostMapping("/batch-get")
+    @Parameter(in = ParameterIn.DEFAULT, name = "servings", schema = @Schema(type = "long", description = "Number of people to rescale the ingredient quantities to, the stored servings when omitted"))
+    public ApiResponse<RecipeBatchDto> getRecipes(
+            @Valid @RequestBody RecipeIdsDto recipeIds,
+            @RequestParam(value = "servings", required = false) Long servings) {
+        checkServings(servings);
+        return recipeService.getRecipes(recipeIds.getIds())
+                .map(batch -> RecipeBatchDto.builder()
+                        .recipes(ServingsScaler.scale(batch.getRecipes(), servings))
+                        .missingIds(batch.getMissingIds())
+                        .build());
+    }
+
+    @PostMapping("/shopping-list")
+    public ApiResponse<ShoppingListDto> getShoppingList(@Valid @RequestBody ShoppingListRequestDto shoppingList) {
+        return recipeService.getShoppingList(shoppingList.getRecipes());
+    }
+
     @DeleteMapping("/{id}")
     @Parameter(in = ParameterIn.PATH, name = "id", schema = @Schema(type = "string", example = "c8c3cc08-6e19-11ed-a1eb-0242ac120002", description = "Unique recipe ID"))
     public ApiResponse<RecipeDto> deleteRecipe(@PathVariable("id") String id) {
@@ -85,12 +427,97 @@ public class RecipeController {
     }
 
     @PutMapping
-    public ApiResponse<RecipeDto> updateRecipe(@Valid @RequestBody RecipeDto recipeDto) {
+    @Parameter(in = ParameterIn.HEADER, name = HttpHeaders.IF_MATCH, schema = @Schema(type = "string", example = "\"3\"", description = "ETag of the recipe version being edited; takes precedence over the version in the body"))
+    public ResponseEntity<ApiResponse<RecipeDto>> updateRecipe(
+            @Valid @RequestBody RecipeDto recipeDto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        boolean conditional = ifMatch != null && !"*".equals(ifMatch.trim());
+        if (conditional) {
+            Long version = RecipeVersion.versionOf(ifMatch);
+            if (version == null) {
+                throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED,
+                        "If-Match " + ifMatch + " is not a recipe version");
+            }
+            recipeDto.setVersion(version);
+        }
         try {
-            return recipeService.updateRecipe(recipeDto);
+            ApiResponse<RecipeDto> response = recipeService.updateRecipe(recipeDto);
+            Long version = response.getBody().getVersion();
+            return version == null
+                    ? ResponseEntity.ok(response)
+                    : ResponseEntity.ok().eTag(RecipeVersion.eTagOf(version)).body(response);
         } catch (RecipeNotFoundException exception) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND,
                     exception.getMessage(), exception);
+        } catch (RecipeConflictException exception) {
+            throw new ResponseStatusException(conditional ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT,
+                    exception.getMessage(), exception);
+        }
+    }
+
+    private static void checkServings(Long servings) {
+        if (servings != null && servings < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "servings must be at least 1");
+        }
+    }
+
+    private static Page<RecipeDto> scale(Page<RecipeDto> recipes, Long servings) {
+        return servings == null ? recipes : recipes.map(recipe -> ServingsScaler.scale(recipe, servings));
+    }
+
+    private static CursorPageDto<RecipeDto> scale(CursorPageDto<RecipeDto> slice, Long servings) {
+        if (servings == null) {
+            return slice;
+        }
+        return CursorPageDto.<RecipeDto>builder()
+                .content(ServingsScaler.scale(slice.getContent(), servings))
+                .size(slice.getSize())
+                .hasNext(slice.isHasNext())
+                .nextCursor(slice.getNextCursor())
+                .totalElements(slice.getTotalElements())
+                .build();
+    }
+
+    /**
+     * Validators for the recipe actually served. A cached copy can lag behind a write committed by another
+     * instance; its ETag then carries its own version, and no Last-Modified is sent since the stored time belongs
+     * to a later version.
+     */
+    private static RecipeVersion servedVersion(RecipeDto served, RecipeVersion stored) {
+        return Objects.equals(served.getVersion(), stored.getVersion())
+                ? stored
+                : new RecipeVersion(null, stored.getCount(), served.getVersion());
+    }
+
+    /**
+     * Answers {@code If-None-Match} / {@code If-Modified-Since} with 304 before the body is read; otherwise
+     * the {@code ETag} and {@code Last-Modified} headers set by the check accompany the freshly read body.
+     */
+    private static <T> ResponseEntity<T> ifModified(WebRequest request, RecipeVersion version, Supplier<T> body) {
+        if (request.checkNotModified(version.eTag(), version.lastModified())) {
+            return null;
+        }
+        return ResponseEntity.ok(body.get());
+    }
+
+    /**
+     * As {@link #ifModified}, but reads the body through the {@link RecipeQueryExecutor}. A 304 is still answered
+     * on the servlet thread.
+     */
+    private <T> CompletableFuture<ResponseEntity<T>> ifModifiedAsync(WebRequest request, RecipeVersion version,
+                                                                     Supplier<T> body) {
+        if (request.checkNotModified(version.eTag(), version.lastModified())) {
+            return null;
+        }
+        return submit(() -> ResponseEntity.ok(body.get()));
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> query) {
+        try {
+            return recipeQueryExecutor.submit(query);
+        } catch (RejectedExecutionException exception) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Too many recipe queries in progress, retry later", exception);
         }
     }
 }
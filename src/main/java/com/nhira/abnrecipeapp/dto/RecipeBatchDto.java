@@ -0,0 +1,17 @@
+package com.nhira.abnrecipeapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+import java.util.List;
+
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecipeBatchDto {
+    private List<RecipeDto> recipes;
+    private List<String> missingIds;
+}
@@ -0,0 +1,20 @@
+package com.nhira.abnrecipeapp.dto;
+
+import com.nhira.abnrecipeapp.utils.enums.ChangeType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+import java.time.OffsetDateTime;
+
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecipeChangeDto {
+    private long sequence;
+    private String recipeId;
+    private ChangeType changeType;
+    private OffsetDateTime changedAt;
+}
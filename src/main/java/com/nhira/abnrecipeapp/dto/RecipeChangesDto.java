@@ -0,0 +1,22 @@
+package com.nhira.abnrecipeapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+import java.util.List;
+
+/**
+ * One page of the change feed. Pass {@code nextSince} as {@code since} to read on; it equals the requested
+ * {@code since} when there were no new changes.
+ */
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecipeChangesDto {
+    private List<RecipeChangeDto> changes;
+    private long nextSince;
+    private boolean hasMore;
+}
@@ -40,4 +40,6 @@ public class RecipeDto {
 
     @NotNull(message = "instructions are mandatory")
     private String instructions;
+
+    private Long version;
 }
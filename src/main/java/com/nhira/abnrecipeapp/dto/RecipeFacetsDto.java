@@ -0,0 +1,26 @@
+package com.nhira.abnrecipeapp.dto;
+
+import com.nhira.abnrecipeapp.utils.enums.RecipeClassification;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+import java.util.Map;
+
+/**
+ * Recipe counts behind the filter UI. {@code total} counts the recipes matching the whole filter. Each classification
+ * and servings count applies every criterion except its own, so it tells how many recipes the filter would match
+ * with that value selected instead. {@code ingredients} holds the most used ingredients among the matching recipes,
+ * most used first.
+ */
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecipeFacetsDto {
+    private long total;
+    private Map<RecipeClassification, Long> classifications;
+    private Map<Long, Long> servings;
+    private Map<String, Long> ingredients;
+}
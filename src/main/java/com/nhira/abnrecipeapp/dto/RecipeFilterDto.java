@@ -6,8 +6,11 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.experimental.SuperBuilder;
 
+import java.util.Optional;
+import java.util.function.Function;
+
 @Data
-@SuperBuilder
+@SuperBuilder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class RecipeFilterDto {
@@ -16,4 +19,19 @@ public class RecipeFilterDto {
     private boolean includeIngredient;
     private long numberOfServings;
     private RecipeClassification classification;
+    private boolean fuzzyIngredient;
+
+    /**
+     * With {@code fuzzyIngredient}, returns a copy filtering on the ingredient name {@code closest} resolves the
+     * requested one to, so a misspelled name still finds its recipes. A name nothing resembles is kept and matches
+     * exactly as before.
+     */
+    public RecipeFilterDto matchIngredient(Function<String, Optional<String>> closest) {
+        if (!fuzzyIngredient || ingredientName == null || ingredientName.isBlank()) {
+            return this;
+        }
+        return closest.apply(ingredientName)
+                .<RecipeFilterDto>map(name -> toBuilder().ingredientName(name).fuzzyIngredient(false).build())
+                .orElse(this);
+    }
 }
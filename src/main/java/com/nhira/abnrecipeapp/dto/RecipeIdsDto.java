@@ -0,0 +1,23 @@
+package com.nhira.abnrecipeapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecipeIdsDto {
+
+    public static final int MAX_IDS = 1000;
+
+    @NotEmpty(message = "ids should be specified")
+    @Size(max = MAX_IDS, message = "at most " + MAX_IDS + " ids can be fetched at once")
+    private List<String> ids;
+}
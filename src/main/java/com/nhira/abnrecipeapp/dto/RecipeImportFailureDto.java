@@ -0,0 +1,16 @@
+package com.nhira.abnrecipeapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecipeImportFailureDto {
+    private long index;
+    private String recipeId;
+    private String reason;
+}
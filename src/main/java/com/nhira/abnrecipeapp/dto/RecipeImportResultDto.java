@@ -0,0 +1,19 @@
+package com.nhira.abnrecipeapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+import java.util.List;
+
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecipeImportResultDto {
+    private long received;
+    private long imported;
+    private long failed;
+    private List<RecipeImportFailureDto> failures;
+}
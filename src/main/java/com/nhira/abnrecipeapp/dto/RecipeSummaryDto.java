@@ -0,0 +1,18 @@
+package com.nhira.abnrecipeapp.dto;
+
+import com.nhira.abnrecipeapp.utils.enums.RecipeClassification;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecipeSummaryDto {
+    private String id;
+    private String name;
+    private long numberOfServings;
+    private RecipeClassification classification;
+}
@@ -0,0 +1,24 @@
+package com.nhira.abnrecipeapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+import java.util.List;
+
+/**
+ * One chunk of the delta sync: recipes created or modified and ids of recipes deleted since the previous chunk. A
+ * recipe id appears in at most one of the lists, reflecting its latest change. Pass {@code continuation} to read
+ * the next chunk while {@code hasMore} is set, and keep the last one to sync from on the next launch.
+ */
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecipeSyncDto {
+    private List<RecipeDto> recipes;
+    private List<String> deletedIds;
+    private String continuation;
+    private boolean hasMore;
+}
@@ -0,0 +1,21 @@
+package com.nhira.abnrecipeapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+import java.util.List;
+
+/**
+ * Ingredients needed for a set of recipes at the requested servings, one line per ingredient and dimension, in the
+ * order the ingredients first appear. Recipes that do not exist are listed in {@code missingIds}.
+ */
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShoppingListDto {
+    private List<IngredientDto> ingredients;
+    private List<String> missingIds;
+}
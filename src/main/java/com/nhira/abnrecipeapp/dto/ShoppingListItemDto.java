@@ -0,0 +1,22 @@
+package com.nhira.abnrecipeapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.Positive;
+
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShoppingListItemDto {
+
+    @NotBlank(message = "recipe id should be specified")
+    private String recipeId;
+
+    @Positive(message = "servings should be at least 1")
+    private long servings;
+}
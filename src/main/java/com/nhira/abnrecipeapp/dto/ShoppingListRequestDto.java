@@ -0,0 +1,25 @@
+package com.nhira.abnrecipeapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShoppingListRequestDto {
+
+    public static final int MAX_RECIPES = 200;
+
+    @Valid
+    @NotEmpty(message = "recipes should be specified")
+    @Size(max = MAX_RECIPES, message = "at most " + MAX_RECIPES + " recipes can be planned at once")
+    private List<ShoppingListItemDto> recipes;
+}
@@ -0,0 +1,119 @@
+package com.nhira.abnrecipeapp.events;
+
+import com.nhira.abnrecipeapp.dto.RecipeChangeDto;
+import com.nhira.abnrecipeapp.service.api.RecipeChangeService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Pushes the change feed to server-sent event subscribers. One scheduler thread polls the outbox for changes past
+ * the oldest subscriber's position and hands each subscriber those it has not seen yet, so a subscriber joining
+ * with an old {@code since} first catches up and then follows live changes without a gap. Polling the outbox
+ * rather than listening to local events means changes written by other instances are streamed too.
+ * <p>
+ * Every event carries the change's sequence number as its id, so a reconnecting client resumes from
+ * {@code Last-Event-ID}.
+ */
+@Slf4j
+@Component
+@Profile("!reactive")
+public class RecipeChangeStream implements DisposableBean {
+
+    static final String EVENT_NAME = "recipe-change";
+
+    private final RecipeChangeService recipeChangeService;
+    private final int batchSize;
+    private final Duration timeout;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final ThreadPoolTaskScheduler scheduler;
+
+    public RecipeChangeStream(RecipeChangeService recipeChangeService,
+                              @Value("${recipe.changes.poll-interval:1s}") Duration pollInterval,
+                              @Value("${recipe.changes.batch-size:500}") int batchSize,
+                              @Value("${recipe.changes.stream-timeout:30m}") Duration timeout) {
+        this.recipeChangeService = recipeChangeService;
+        this.batchSize = batchSize;
+        this.timeout = timeout;
+        this.scheduler = new ThreadPoolTaskScheduler();
+        this.scheduler.setPoolSize(1);
+        this.scheduler.setThreadNamePrefix("recipe-changes-");
+        this.scheduler.initialize();
+        this.scheduler.scheduleWithFixedDelay(this::publish, pollInterval);
+    }
+
+    /**
+     * Streams every change after {@code since} until the client disconnects or the stream times out.
+     */
+    public SseEmitter subscribe(long since) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter, since);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        log.debug("Change stream subscribed from sequence {}, {} subscribers", since, subscribers.size());
+        return emitter;
+    }
+
+    void publish() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        long since = subscribers.stream().mapToLong(subscriber -> subscriber.position).min().orElse(0);
+        List<RecipeChangeDto> changes;
+        do {
+            changes = recipeChangeService.findChanges(since, batchSize);
+            for (Subscriber subscriber : subscribers) {
+                subscriber.send(changes);
+            }
+            if (!changes.isEmpty()) {
+                since = changes.get(changes.size() - 1).getSequence();
+            }
+        } while (changes.size() == batchSize);
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdown();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    private class Subscriber {
+        private final SseEmitter emitter;
+        private volatile long position;
+
+        Subscriber(SseEmitter emitter, long position) {
+            this.emitter = emitter;
+            this.position = position;
+        }
+
+        void send(List<RecipeChangeDto> changes) {
+            try {
+                for (RecipeChangeDto change : changes) {
+                    if (change.getSequence() > position) {
+                        emitter.send(SseEmitter.event()
+                                .id(Long.toString(change.getSequence()))
+                                .name(EVENT_NAME)
+                                .data(change, MediaType.APPLICATION_JSON));
+                        position = change.getSequence();
+                    }
+                }
+            } catch (IOException | IllegalStateException exception) {
+                log.debug("Change stream subscriber went away: {}", exception.getMessage());
+                subscribers.remove(this);
+                emitter.completeWithError(exception);
+            }
+        }
+    }
+}
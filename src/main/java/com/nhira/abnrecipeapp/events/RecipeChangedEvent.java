@@ -0,0 +1,12 @@
+package com.nhira.abnrecipeapp.events;
+
+import lombok.Value;
+
+/**
+ * Published while a transaction flushes a change to a recipe or one of its ingredients.
+ * Only the recipe id is carried; listeners re-read the committed state when they need it.
+ */
+@Value
+public class RecipeChangedEvent {
+    String recipeId;
+}
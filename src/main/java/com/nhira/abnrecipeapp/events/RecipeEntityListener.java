@@ -0,0 +1,35 @@
+package com.nhira.abnrecipeapp.events;
+
+import com.nhira.abnrecipeapp.model.Ingredient;
+import com.nhira.abnrecipeapp.model.Recipe;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * JPA listener that turns every recipe and ingredient write into a {@link RecipeChangedEvent}, so derived
+ * structures stay in step with the database no matter whether the write came through the service or the repository.
+ */
+@RequiredArgsConstructor
+public class RecipeEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        String recipeId = null;
+        if (entity instanceof Recipe) {
+            recipeId = ((Recipe) entity).getId();
+        } else if (entity instanceof Ingredient && ((Ingredient) entity).getRecipe() != null) {
+            recipeId = ((Ingredient) entity).getRecipe().getId();
+        }
+        if (recipeId != null) {
+            eventPublisher.publishEvent(new RecipeChangedEvent(recipeId));
+        }
+    }
+}
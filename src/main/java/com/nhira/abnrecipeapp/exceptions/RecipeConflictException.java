@@ -0,0 +1,9 @@
+package com.nhira.abnrecipeapp.exceptions;
+
+public class RecipeConflictException extends RuntimeException {
+
+    public RecipeConflictException(String message) {
+        super(message);
+    }
+
+}
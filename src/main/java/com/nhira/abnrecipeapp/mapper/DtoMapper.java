@@ -1,17 +1,20 @@
 package com.nhira.abnrecipeapp.mapper;
 
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.nhira.abnrecipeapp.dto.IngredientDto;
+import com.nhira.abnrecipeapp.dto.RecipeChangeDto;
 import com.nhira.abnrecipeapp.dto.RecipeDto;
+import com.nhira.abnrecipeapp.model.Ingredient;
 import com.nhira.abnrecipeapp.model.Recipe;
+import com.nhira.abnrecipeapp.model.RecipeChange;
+import com.nhira.abnrecipeapp.utils.Utils;
+import org.mapstruct.AfterMapping;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
 import org.mapstruct.Named;
 import org.mapstruct.factory.Mappers;
 
-import java.util.Arrays;
 import java.util.List;
 
 @Mapper
@@ -19,28 +22,40 @@ public interface DtoMapper {
 
     DtoMapper MAPPER = Mappers.getMapper(DtoMapper.class);
 
-    ObjectMapper objectMapper = new ObjectMapper();
-
-    @Mapping(source = "ingredients",
-            target = "ingredientList",
-            qualifiedByName = "stringToIngredientList")
+    @Mapping(source = "ingredients", target = "ingredientList")
     RecipeDto toRecipeDto(Recipe entity);
     List<RecipeDto> toRecipeDtoList(List<Recipe> entities);
 
-    @Mapping(source = "ingredientList",
-            target = "ingredients",
-            qualifiedByName = "IngredientListToString")
+    @Mapping(source = "ingredientList", target = "ingredients")
+    @Mapping(target = "version", ignore = true)
     Recipe toRecipeEntity(RecipeDto dto);
     List<Recipe> toRecipeEntityList(List<RecipeDto> dtos);
 
-    @Named("IngredientListToString")
-    static String IngredientDtoListToString(List<IngredientDto> ingredients) throws JsonProcessingException {
-        return objectMapper.writeValueAsString(ingredients);
+    IngredientDto toIngredientDto(Ingredient entity);
+
+    @Mapping(source = "name",
+            target = "normalizedName",
+            qualifiedByName = "normalizeIngredientName")
+    @Mapping(target = "recipe", ignore = true)
+    @Mapping(target = "position", ignore = true)
+    Ingredient toIngredientEntity(IngredientDto dto);
+
+    @Mapping(source = "id", target = "sequence")
+    RecipeChangeDto toRecipeChangeDto(RecipeChange entity);
+
+    @AfterMapping
+    default void linkIngredients(@MappingTarget Recipe recipe) {
+        if (recipe.getIngredients() != null) {
+            for (int position = 0; position < recipe.getIngredients().size(); position++) {
+                recipe.getIngredients().get(position).setRecipe(recipe);
+                recipe.getIngredients().get(position).setPosition(position);
+            }
+        }
     }
 
-    @Named("stringToIngredientList")
-    static List<IngredientDto> stringToIngredientList(String ingredients) throws JsonProcessingException {
-        return Arrays.asList(objectMapper.readValue(ingredients, IngredientDto[].class));
+    @Named("normalizeIngredientName")
+    static String normalizeIngredientName(String name) {
+        return Utils.normalizeIngredientName(name);
     }
 
 }
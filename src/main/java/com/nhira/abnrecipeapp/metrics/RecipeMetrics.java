@@ -0,0 +1,75 @@
+package com.nhira.abnrecipeapp.metrics;
+
+import com.nhira.abnrecipeapp.dto.RecipeFilterDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.StringJoiner;
+import java.util.function.Supplier;
+
+/**
+ * Recipe level meters, recorded next to the per-endpoint {@code http.server.requests}, per-repository-method
+ * {@code spring.data.repository.invocations} and Hikari pool meters Spring Boot already publishes. Percentiles and
+ * histograms are configured under {@code management.metrics.distribution} rather than per meter.
+ */
+@Component
+@RequiredArgsConstructor
+public class RecipeMetrics {
+
+    public static final String OPERATIONS = "recipe.operations";
+    public static final String RESULTS = "recipe.results";
+    public static final String NOT_FOUND = "recipe.not.found";
+    public static final String VALIDATION_FAILURES = "recipe.validation.failures";
+    public static final String SEARCH_INDEX = "recipe.search.index";
+
+    public static final String NO_FILTER = "none";
+
+    private final MeterRegistry meterRegistry;
+
+    public <T> T time(String operation, Supplier<T> call) {
+        return meterRegistry.timer(OPERATIONS, "operation", operation, "shape", NO_FILTER).record(call);
+    }
+
+    public <T> T time(String operation, RecipeFilterDto filter, Supplier<T> call) {
+        return meterRegistry.timer(OPERATIONS, "operation", operation, "shape", shape(filter)).record(call);
+    }
+
+    public void recordResults(String operation, int size) {
+        meterRegistry.summary(RESULTS, "operation", operation).record(size);
+    }
+
+    public void recordNotFound(String operation) {
+        meterRegistry.counter(NOT_FOUND, "operation", operation).increment();
+    }
+
+    public void recordValidationFailure(String target) {
+        meterRegistry.counter(VALIDATION_FAILURES, "target", target).increment();
+    }
+
+    public void recordSearchIndex(boolean hit) {
+        meterRegistry.counter(SEARCH_INDEX, "result", hit ? "hit" : "miss").increment();
+    }
+
+    /**
+     * Names the criteria a filter uses, not their values, e.g. {@code classification+ingredient}, so the tag
+     * stays low-cardinality.
+     */
+    public static String shape(RecipeFilterDto filter) {
+        StringJoiner shape = new StringJoiner("+");
+        if (filter.getClassification() != null) {
+            shape.add("classification");
+        }
+        if (filter.getNumberOfServings() != 0) {
+            shape.add("servings");
+        }
+        if (StringUtils.hasText(filter.getInstructionSearch())) {
+            shape.add("instructions");
+        }
+        if (StringUtils.hasText(filter.getIngredientName())) {
+            shape.add(filter.isIncludeIngredient() ? "ingredient" : "without_ingredient");
+        }
+        return shape.length() == 0 ? NO_FILTER : shape.toString();
+    }
+}
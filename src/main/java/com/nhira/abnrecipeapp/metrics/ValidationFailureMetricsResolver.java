@@ -0,0 +1,41 @@
+package com.nhira.abnrecipeapp.metrics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.BindException;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.servlet.ModelAndView;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Counts rejected request bodies and parameters on their way to the regular resolvers. Never resolves anything
+ * itself, so the responses stay exactly what they were.
+ */
+@Component
+@RequiredArgsConstructor
+public class ValidationFailureMetricsResolver implements HandlerExceptionResolver, Ordered {
+
+    private final RecipeMetrics recipeMetrics;
+
+    @Override
+    public ModelAndView resolveException(HttpServletRequest request, HttpServletResponse response,
+                                         Object handler, Exception exception) {
+        if (exception instanceof BindException) {
+            recipeMetrics.recordValidationFailure(((BindException) exception).getObjectName());
+        } else if (exception instanceof ResponseStatusException
+                && ((ResponseStatusException) exception).getStatus() == HttpStatus.BAD_REQUEST) {
+            recipeMetrics.recordValidationFailure("parameters");
+        }
+        return null;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
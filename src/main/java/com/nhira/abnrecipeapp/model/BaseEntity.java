@@ -9,6 +9,7 @@ import javax.persistence.Column;
 import javax.persistence.Id;
 import javax.persistence.MappedSuperclass;
 import javax.persistence.PrePersist;
+import javax.persistence.Version;
 import java.time.OffsetDateTime;
 import java.util.UUID;
 
@@ -17,7 +18,8 @@ import java.util.UUID;
 @ToString(of = {
         "id",
         "dateCreated",
-        "lastUpdated"
+        "lastUpdated",
+        "version"
 }
 )
 public class BaseEntity {
@@ -25,13 +27,16 @@ public class BaseEntity {
     protected String id;
 
     @CreationTimestamp
-    @Column(columnDefinition = "TIMESTAMP WITH TIME ZONE")
+    @Column(columnDefinition = "TIMESTAMP WITH TIME ZONE", updatable = false)
     protected OffsetDateTime dateCreated;
 
     @UpdateTimestamp
     @Column(columnDefinition = "TIMESTAMP WITH TIME ZONE")
     protected OffsetDateTime lastUpdated;
 
+    @Version
+    protected Long version;
+
     @PrePersist
     public void init() {
         if (id == null) {
@@ -0,0 +1,37 @@
+package com.nhira.abnrecipeapp.model;
+
+import com.nhira.abnrecipeapp.events.RecipeEntityListener;
+import com.nhira.abnrecipeapp.utils.enums.UnitOfMeasure;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import javax.persistence.*;
+
+@Data
+@Entity
+@EntityListeners(RecipeEntityListener.class)
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = false)
+public class Ingredient extends BaseEntity {
+    private String name;
+
+    @Column(name = "normalized_name")
+    private String normalizedName;
+
+    private double quantity;
+
+    @Enumerated(EnumType.STRING)
+    private UnitOfMeasure unitOfMeasure;
+
+    private int position;
+
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "recipe_id")
+    private Recipe recipe;
+}
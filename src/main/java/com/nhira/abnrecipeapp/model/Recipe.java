@@ -1,5 +1,6 @@
 package com.nhira.abnrecipeapp.model;
 
+import com.nhira.abnrecipeapp.events.RecipeEntityListener;
 import com.nhira.abnrecipeapp.utils.enums.RecipeClassification;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -7,10 +8,13 @@ import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 
 import javax.persistence.*;
+import java.util.ArrayList;
+import java.util.List;
 
 @Data
 @Entity
 @Inheritance
+@EntityListeners(RecipeEntityListener.class)
 @NoArgsConstructor
 @AllArgsConstructor
 @EqualsAndHashCode(callSuper = false)
@@ -21,6 +25,10 @@ public class Recipe extends BaseEntity{
     @Enumerated(EnumType.STRING)
     private RecipeClassification classification;
 
-    private String ingredients;
+    @OneToMany(mappedBy = "recipe", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("position")
+    private List<Ingredient> ingredients = new ArrayList<>();
+
+    @Column(length = 10000)
     private String instructions;
 }
@@ -0,0 +1,34 @@
+package com.nhira.abnrecipeapp.model;
+
+import com.nhira.abnrecipeapp.utils.enums.ChangeType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.OffsetDateTime;
+
+/**
+ * Outbox row recording one recipe write. Its generated id is the sequence number of the change feed.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "recipe_change")
+public class RecipeChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String recipeId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ChangeType changeType;
+
+    @Column(columnDefinition = "TIMESTAMP WITH TIME ZONE", nullable = false)
+    private OffsetDateTime changedAt;
+}
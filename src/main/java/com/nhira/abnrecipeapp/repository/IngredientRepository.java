@@ -0,0 +1,14 @@
+package com.nhira.abnrecipeapp.repository;
+
+import com.nhira.abnrecipeapp.model.Ingredient;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface IngredientRepository extends JpaRepository<Ingredient, String> {
+
+    @Modifying
+    @Query("DELETE FROM Ingredient i WHERE i.recipe.id = :recipeId")
+    int deleteByRecipeId(@Param("recipeId") String recipeId);
+}
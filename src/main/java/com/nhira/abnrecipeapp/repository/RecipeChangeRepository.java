@@ -0,0 +1,39 @@
+package com.nhira.abnrecipeapp.repository;
+
+import com.nhira.abnrecipeapp.model.RecipeChange;
+import com.nhira.abnrecipeapp.utils.enums.ChangeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+public interface RecipeChangeRepository extends JpaRepository<RecipeChange, Long> {
+
+    /**
+     * Returns the changes after {@code since} in sequence order, leaving out those recorded at or after
+     * {@code before} since a transaction that took an earlier sequence number may not have committed yet.
+     */
+    @Query("SELECT c FROM RecipeChange c WHERE c.id > :since AND c.changedAt < :before ORDER BY c.id")
+    List<RecipeChange> findChanges(@Param("since") long since,
+                                   @Param("before") OffsetDateTime before,
+                                   Pageable pageable);
+
+    /**
+     * Returns the changes of the given type recorded after the given position and before {@code before}, in
+     * {@code changedAt} then recipe id order.
+     */
+    @Query("SELECT c FROM RecipeChange c WHERE c.changeType = :changeType " +
+            "AND (c.changedAt > :changedAt OR (c.changedAt = :changedAt AND c.recipeId > :recipeId)) " +
+            "AND c.changedAt < :before ORDER BY c.changedAt, c.recipeId")
+    List<RecipeChange> findChangesAfter(@Param("changeType") ChangeType changeType,
+                                        @Param("changedAt") OffsetDateTime changedAt,
+                                        @Param("recipeId") String recipeId,
+                                        @Param("before") OffsetDateTime before,
+                                        Pageable pageable);
+
+    @Query("SELECT COALESCE(MAX(c.id), 0) FROM RecipeChange c")
+    long findLatestId();
+}
@@ -1,25 +1,193 @@
 package com.nhira.abnrecipeapp.repository;
 
+import com.nhira.abnrecipeapp.dto.RecipeSummaryDto;
 import com.nhira.abnrecipeapp.model.Recipe;
+import com.nhira.abnrecipeapp.utils.enums.RecipeClassification;
+import com.nhira.abnrecipeapp.utils.RecipeVersion;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
 public interface RecipeRepository extends JpaRepository<Recipe, String> {
 
-    @Query("SELECT r FROM Recipe r  WHERE " +
+    String ESCAPED_INSTRUCTION_SEARCH = ":#{#instructionSearch == null ? '' : escape(#instructionSearch)}";
+
+    String FILTER_CRITERIA =
             "(:classification IS NULL OR :classification = '' OR r.classification = :classification) " +
-            "AND (:instructionSearch IS NULL OR :instructionSearch = '' OR LOWER(r.instructions) LIKE %:instructionSearch%) " +
-            "AND (:ingredientName IS NULL OR :ingredientName = ''  OR (:includeIngredient IS TRUE AND r.ingredients LIKE %:ingredientName%)" +
-            " OR (:includeIngredient IS FALSE AND r.ingredients NOT LIKE %:ingredientName%)) " +
-            "AND (:numberOfServings = 0L) OR ( r.numberOfServings = :numberOfServings) "
-    )
+            "AND (:instructionSearch IS NULL OR :instructionSearch = '' " +
+            " OR LOWER(r.instructions) LIKE LOWER(CONCAT('%', " + ESCAPED_INSTRUCTION_SEARCH + ", '%')) ESCAPE :#{escapeCharacter()}) " +
+            "AND (:ingredientName IS NULL OR :ingredientName = '' " +
+            " OR (:includeIngredient IS TRUE AND EXISTS (SELECT i.id FROM Ingredient i WHERE i.recipe = r AND i.normalizedName = :ingredientName))" +
+            " OR (:includeIngredient IS FALSE AND NOT EXISTS (SELECT i.id FROM Ingredient i WHERE i.recipe = r AND i.normalizedName = :ingredientName))) " +
+            "AND (:numberOfServings = 0L OR r.numberOfServings = :numberOfServings) ";
+
+    String CURSOR_DATE_CREATED =
+            "COALESCE((SELECT c.dateCreated FROM Recipe c WHERE c.id = :id), :dateCreated)";
+
+    String OLDER_THAN_CURSOR =
+            "(r.dateCreated < " + CURSOR_DATE_CREATED +
+            " OR (r.dateCreated = " + CURSOR_DATE_CREATED + " AND r.id < :id)) ";
+
+    String NEWEST_FIRST = "ORDER BY r.dateCreated DESC, r.id DESC";
+
+    String STREAM_FETCH_SIZE = "500";
+
+    String SELECT_SUMMARY = "SELECT new com.nhira.abnrecipeapp.dto.RecipeSummaryDto(" +
+            "r.id, r.name, r.numberOfServings, r.classification) FROM Recipe r ";
+
+    @Query("SELECT r FROM Recipe r  WHERE " + FILTER_CRITERIA)
     Page<Recipe> filter(@Param("classification") String classification,
                         @Param("numberOfServings") long numberOfServings,
                         @Param("instructionSearch") String instructionSearch,
                         @Param("ingredientName") String ingredientName,
                         @Param("includeIngredient") boolean includeIngredient,
                         Pageable pageable);
+
+    @Query(value = SELECT_SUMMARY + "WHERE " + FILTER_CRITERIA,
+            countQuery = "SELECT COUNT(r) FROM Recipe r  WHERE " + FILTER_CRITERIA)
+    Page<RecipeSummaryDto> filterSummaries(@Param("classification") String classification,
+                                           @Param("numberOfServings") long numberOfServings,
+                                           @Param("instructionSearch") String instructionSearch,
+                                           @Param("ingredientName") String ingredientName,
+                                           @Param("includeIngredient") boolean includeIngredient,
+                                           Pageable pageable);
+
+    @Query(value = SELECT_SUMMARY, countQuery = "SELECT COUNT(r) FROM Recipe r")
+    Page<RecipeSummaryDto> findAllSummaries(Pageable pageable);
+
+    @Query(SELECT_SUMMARY + "WHERE r.id IN :ids")
+    List<RecipeSummaryDto> findSummariesByIdIn(@Param("ids") Collection<String> ids);
+
+    @Query("SELECT r FROM Recipe r  WHERE " + FILTER_CRITERIA + NEWEST_FIRST)
+    Slice<Recipe> filterNewest(@Param("classification") String classification,
+                               @Param("numberOfServings") long numberOfServings,
+                               @Param("instructionSearch") String instructionSearch,
+                               @Param("ingredientName") String ingredientName,
+                               @Param("includeIngredient") boolean includeIngredient,
+                               Pageable pageable);
+
+    @Query("SELECT r FROM Recipe r  WHERE " + FILTER_CRITERIA + "AND " + OLDER_THAN_CURSOR + NEWEST_FIRST)
+    Slice<Recipe> filterOlderThan(@Param("classification") String classification,
+                                  @Param("numberOfServings") long numberOfServings,
+                                  @Param("instructionSearch") String instructionSearch,
+                                  @Param("ingredientName") String ingredientName,
+                                  @Param("includeIngredient") boolean includeIngredient,
+                                  @Param("dateCreated") OffsetDateTime dateCreated,
+                                  @Param("id") String id,
+                                  Pageable pageable);
+
+    /**
+     * Streams matching recipes from a server-side cursor. Must be consumed inside a transaction and closed.
+     */
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE), @QueryHint(name = HINT_READONLY, value = "true")})
+    @Query("SELECT r FROM Recipe r  WHERE " + FILTER_CRITERIA + NEWEST_FIRST)
+    Stream<Recipe> streamFilter(@Param("classification") String classification,
+                                @Param("numberOfServings") long numberOfServings,
+                                @Param("instructionSearch") String instructionSearch,
+                                @Param("ingredientName") String ingredientName,
+                                @Param("includeIngredient") boolean includeIngredient);
+
+    @Query("SELECT COUNT(r) FROM Recipe r  WHERE " + FILTER_CRITERIA)
+    long countFilter(@Param("classification") String classification,
+                     @Param("numberOfServings") long numberOfServings,
+                     @Param("instructionSearch") String instructionSearch,
+                     @Param("ingredientName") String ingredientName,
+                     @Param("includeIngredient") boolean includeIngredient);
+
+    @Query("SELECT r.classification, COUNT(r) FROM Recipe r  WHERE " + FILTER_CRITERIA + "GROUP BY r.classification")
+    List<Object[]> countByClassification(@Param("classification") String classification,
+                                         @Param("numberOfServings") long numberOfServings,
+                                         @Param("instructionSearch") String instructionSearch,
+                                         @Param("ingredientName") String ingredientName,
+                                         @Param("includeIngredient") boolean includeIngredient);
+
+    @Query("SELECT r.numberOfServings, COUNT(r) FROM Recipe r  WHERE " + FILTER_CRITERIA +
+            "GROUP BY r.numberOfServings ORDER BY r.numberOfServings")
+    List<Object[]> countByNumberOfServings(@Param("classification") String classification,
+                                           @Param("numberOfServings") long numberOfServings,
+                                           @Param("instructionSearch") String instructionSearch,
+                                           @Param("ingredientName") String ingredientName,
+                                           @Param("includeIngredient") boolean includeIngredient);
+
+    @Query("SELECT ri.normalizedName, COUNT(DISTINCT r.id) FROM Recipe r JOIN r.ingredients ri WHERE " + FILTER_CRITERIA +
+            "GROUP BY ri.normalizedName ORDER BY COUNT(DISTINCT r.id) DESC, ri.normalizedName")
+    List<Object[]> countByIngredient(@Param("classification") String classification,
+                                     @Param("numberOfServings") long numberOfServings,
+                                     @Param("instructionSearch") String instructionSearch,
+                                     @Param("ingredientName") String ingredientName,
+                                     @Param("includeIngredient") boolean includeIngredient,
+                                     Pageable pageable);
+
+    /**
+     * Reads what a shopping list needs of the given recipes as flat rows, without loading entities: recipe id,
+     * servings, ingredient name, normalized name, quantity and unit, in ingredient order. A recipe without
+     * ingredients yields one row
+     * with {@code null} ingredient columns.
+     */
+    @Query("SELECT r.id, r.numberOfServings, ri.name, ri.normalizedName, ri.quantity, ri.unitOfMeasure " +
+            "FROM Recipe r LEFT JOIN r.ingredients ri WHERE r.id IN :ids ORDER BY ri.position")
+    List<Object[]> findIngredientQuantities(@Param("ids") Collection<String> ids);
+
+    @Query("SELECT MAX(r.lastUpdated) FROM Recipe r")
+    OffsetDateTime findLastUpdated();
+
+    @Query("SELECT new com.nhira.abnrecipeapp.utils.RecipeVersion(MAX(r.lastUpdated), COUNT(r), MAX(r.version)) " +
+            "FROM Recipe r WHERE r.id = :id")
+    RecipeVersion findVersionById(@Param("id") String id);
+
+    @Query("SELECT r.version FROM Recipe r WHERE r.id = :id")
+    Optional<Long> findCurrentVersion(@Param("id") String id);
+
+    /**
+     * Overwrites the recipe's own columns in a single statement, provided nobody changed it since
+     * {@code version}. Bypasses the persistence context and entity listeners.
+     *
+     * @return 1 when updated, 0 when the recipe does not exist or its version moved on
+     */
+    @Modifying
+    @Query("UPDATE Recipe r SET r.name = :name, r.numberOfServings = :numberOfServings, " +
+            "r.classification = :classification, r.instructions = :instructions, " +
+            "r.lastUpdated = :lastUpdated, r.version = r.version + 1 " +
+            "WHERE r.id = :id AND r.version = :version")
+    int updateIfVersion(@Param("id") String id,
+                        @Param("version") long version,
+                        @Param("name") String name,
+                        @Param("numberOfServings") long numberOfServings,
+                        @Param("classification") RecipeClassification classification,
+                        @Param("instructions") String instructions,
+                        @Param("lastUpdated") OffsetDateTime lastUpdated);
+
+    @Query("SELECT r FROM Recipe r " + NEWEST_FIRST)
+    Slice<Recipe> findNewest(Pageable pageable);
+
+    /**
+     * Returns recipes modified after the given position and before {@code before}, in {@code lastUpdated} then
+     * id order.
+     */
+    @Query("SELECT r FROM Recipe r WHERE (r.lastUpdated > :lastUpdated OR (r.lastUpdated = :lastUpdated AND r.id > :id)) " +
+            "AND r.lastUpdated < :before ORDER BY r.lastUpdated, r.id")
+    List<Recipe> findModifiedAfter(@Param("lastUpdated") OffsetDateTime lastUpdated,
+                                   @Param("id") String id,
+                                   @Param("before") OffsetDateTime before,
+                                   Pageable pageable);
+
+    @Query("SELECT r FROM Recipe r WHERE " + OLDER_THAN_CURSOR + NEWEST_FIRST)
+    Slice<Recipe> findOlderThan(@Param("dateCreated") OffsetDateTime dateCreated,
+                                @Param("id") String id,
+                                Pageable pageable);
 }
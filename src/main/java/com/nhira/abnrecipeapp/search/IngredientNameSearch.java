@@ -0,0 +1,76 @@
+package com.nhira.abnrecipeapp.search;
+
+import com.nhira.abnrecipeapp.utils.Utils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Autocomplete and typo-tolerant lookup over the distinct normalized ingredient names. With
+ * {@code recipe.trigram-search.enabled} the names are matched by PostgreSQL's {@code pg_trgm} through the trigram
+ * GIN index on {@code ingredient.normalized_name} (migration {@code V3__add_text_search_indexes}); otherwise by the
+ * {@link TrigramIndex} kept in {@link RecipeSearchIndex}. Until that index is built, suggestions fall back to a
+ * plain prefix query and names are only matched exactly.
+ */
+@Component
+public class IngredientNameSearch {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final RecipeSearchIndex recipeSearchIndex;
+    private final boolean trigramSearchEnabled;
+
+    public IngredientNameSearch(NamedParameterJdbcTemplate jdbcTemplate,
+                                RecipeSearchIndex recipeSearchIndex,
+                                @Value("${recipe.trigram-search.enabled:false}") boolean trigramSearchEnabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.recipeSearchIndex = recipeSearchIndex;
+        this.trigramSearchEnabled = trigramSearchEnabled;
+    }
+
+    /**
+     * Returns up to {@code limit} ingredient names starting with {@code prefix}, followed by similarly spelled ones.
+     */
+    public List<String> suggest(String prefix, int limit) {
+        String normalizedPrefix = Utils.normalizeIngredientName(prefix);
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("prefix", normalizedPrefix)
+                .addValue("pattern", escapeLike(normalizedPrefix) + "%")
+                .addValue("limit", limit);
+        if (trigramSearchEnabled) {
+            return jdbcTemplate.queryForList("SELECT n.name FROM (SELECT DISTINCT i.normalized_name AS name " +
+                    "FROM ingredient i WHERE i.normalized_name LIKE :pattern OR i.normalized_name % :prefix) n " +
+                    "ORDER BY n.name LIKE :pattern DESC, similarity(n.name, :prefix) DESC, n.name " +
+                    "LIMIT :limit", parameters, String.class);
+        }
+        return recipeSearchIndex.suggestIngredients(normalizedPrefix, limit)
+                .orElseGet(() -> jdbcTemplate.queryForList("SELECT DISTINCT i.normalized_name FROM ingredient i " +
+                        "WHERE i.normalized_name LIKE :pattern ORDER BY i.normalized_name " +
+                        "LIMIT :limit", parameters, String.class));
+    }
+
+    /**
+     * Returns the known ingredient name closest to {@code name}, which is {@code name} itself when some recipe uses
+     * it, or empty when no name is similar enough.
+     */
+    public Optional<String> closest(String name) {
+        String normalizedName = Utils.normalizeIngredientName(name);
+        if (trigramSearchEnabled) {
+            return jdbcTemplate.queryForList("SELECT i.normalized_name FROM ingredient i " +
+                            "WHERE i.normalized_name % :name GROUP BY i.normalized_name " +
+                            "ORDER BY similarity(i.normalized_name, :name) DESC, i.normalized_name LIMIT 1",
+                    new MapSqlParameterSource("name", normalizedName), String.class)
+                    .stream().findFirst();
+        }
+        return recipeSearchIndex.isReady()
+                ? recipeSearchIndex.closestIngredient(normalizedName)
+                : Optional.empty();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
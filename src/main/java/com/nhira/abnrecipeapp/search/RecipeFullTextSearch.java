@@ -0,0 +1,141 @@
+package com.nhira.abnrecipeapp.search;
+
+import com.nhira.abnrecipeapp.dto.RecipeFilterDto;
+import com.nhira.abnrecipeapp.utils.Utils;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Instruction search on PostgreSQL's full-text engine. {@code recipe.instructions_tsv} is a stored
+ * {@code tsvector} generated from the instructions and covered by a GIN index (migration {@code V3__add_text_search_indexes}),
+ * so matching is stemmed and indexed and results are ranked with {@code ts_rank}, newest first among equal ranks.
+ * <p>
+ * Every word of the search is a prefix term and double-quoted text must match as a phrase, e.g.
+ * {@code "bring to boil" egg} becomes {@code (bring <-> to <-> boil) & egg:*}. Only enabled with
+ * {@code recipe.full-text-search.enabled}; otherwise, and for filters without instruction search, every method
+ * returns empty and the caller answers the filter from {@link RecipeSearchIndex} or the {@code LIKE} query.
+ */
+@Component
+public class RecipeFullTextSearch {
+
+    private static final Pattern PHRASE = Pattern.compile("\"([^\"]*)\"");
+    private static final String TEXT_SEARCH_CONFIG = "english";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+
+    public RecipeFullTextSearch(NamedParameterJdbcTemplate jdbcTemplate,
+                                @Value("${recipe.full-text-search.enabled:false}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Returns the requested offset page of recipes matching the filter, best ranked first.
+     */
+    public Optional<SearchHits> search(RecipeFilterDto filter, int page, int size) {
+        return where(filter).map(where -> {
+            long total = count(where);
+            long offset = (long) page * size;
+            if (offset >= total) {
+                return new SearchHits(List.of(), total, false);
+            }
+            MapSqlParameterSource parameters = where.parameters
+                    .addValue("limit", size)
+                    .addValue("offset", offset);
+            List<String> recipeIds = jdbcTemplate.queryForList("SELECT r.id " + where.sql +
+                    "ORDER BY ts_rank(r.instructions_tsv, q) DESC, r.date_created DESC, r.id DESC " +
+                    "LIMIT :limit OFFSET :offset", parameters, String.class);
+            return new SearchHits(recipeIds, total, offset + recipeIds.size() < total);
+        });
+    }
+
+    /**
+     * Returns the ids of every recipe matching the filter, best ranked first.
+     */
+    public Optional<List<String>> searchAll(RecipeFilterDto filter) {
+        return where(filter).map(where -> jdbcTemplate.queryForList("SELECT r.id " + where.sql +
+                "ORDER BY ts_rank(r.instructions_tsv, q) DESC, r.date_created DESC, r.id DESC", where.parameters, String.class));
+    }
+
+    private long count(Where where) {
+        Long total = jdbcTemplate.queryForObject("SELECT COUNT(*) " + where.sql, where.parameters, Long.class);
+        return total == null ? 0 : total;
+    }
+
+    private Optional<Where> where(RecipeFilterDto filter) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        String query = toTsQuery(filter.getInstructionSearch());
+        if (query == null) {
+            return Optional.empty();
+        }
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("config", TEXT_SEARCH_CONFIG)
+                .addValue("query", query);
+        StringBuilder sql = new StringBuilder("FROM recipe r, to_tsquery(CAST(:config AS regconfig), :query) q " +
+                "WHERE r.instructions_tsv @@ q ");
+        if (filter.getClassification() != null) {
+            sql.append("AND r.classification = :classification ");
+            parameters.addValue("classification", filter.getClassification().name());
+        }
+        if (filter.getNumberOfServings() != 0) {
+            sql.append("AND r.number_of_servings = :numberOfServings ");
+            parameters.addValue("numberOfServings", filter.getNumberOfServings());
+        }
+        String ingredientName = Utils.normalizeIngredientName(filter.getIngredientName());
+        if (ingredientName != null && !ingredientName.isEmpty()) {
+            sql.append(filter.isIncludeIngredient() ? "AND EXISTS " : "AND NOT EXISTS ")
+                    .append("(SELECT 1 FROM ingredient i WHERE i.recipe_id = r.id AND i.normalized_name = :ingredientName) ");
+            parameters.addValue("ingredientName", ingredientName);
+        }
+        return Optional.of(new Where(sql.toString(), parameters));
+    }
+
+    /**
+     * Turns a search bar query into a {@code tsquery}: quoted text becomes a phrase, every other word a prefix
+     * term, all of them required. Words are reduced to letters and digits, so user input never reaches the
+     * {@code tsquery} syntax.
+     *
+     * @return the {@code tsquery}, or {@code null} when the search holds no word
+     */
+    static String toTsQuery(String search) {
+        if (search == null) {
+            return null;
+        }
+        List<String> terms = new ArrayList<>();
+        Matcher phrases = PHRASE.matcher(search);
+        StringBuilder words = new StringBuilder();
+        int end = 0;
+        while (phrases.find()) {
+            words.append(search, end, phrases.start()).append(' ');
+            end = phrases.end();
+            List<String> phrase = RecipeSearchIndex.tokenize(phrases.group(1));
+            if (phrase.size() == 1) {
+                terms.add(phrase.get(0));
+            } else if (!phrase.isEmpty()) {
+                terms.add(phrase.stream().collect(Collectors.joining(" <-> ", "(", ")")));
+            }
+        }
+        words.append(search.substring(end));
+        RecipeSearchIndex.tokenize(words.toString()).forEach(word -> terms.add(word + ":*"));
+        return terms.isEmpty() ? null : String.join(" & ", terms);
+    }
+
+    @AllArgsConstructor
+    private static class Where {
+        private final String sql;
+        private final MapSqlParameterSource parameters;
+    }
+}
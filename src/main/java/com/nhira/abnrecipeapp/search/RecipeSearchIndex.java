@@ -0,0 +1,633 @@
+package com.nhira.abnrecipeapp.search;
+
+import com.nhira.abnrecipeapp.dto.RecipeFacetsDto;
+import com.nhira.abnrecipeapp.dto.RecipeFilterDto;
+import com.nhira.abnrecipeapp.events.RecipeChangedEvent;
+import com.nhira.abnrecipeapp.model.Ingredient;
+import com.nhira.abnrecipeapp.model.Recipe;
+import com.nhira.abnrecipeapp.repository.RecipeRepository;
+import com.nhira.abnrecipeapp.utils.Utils;
+import com.nhira.abnrecipeapp.utils.enums.RecipeClassification;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory inverted index over recipes. Every recipe gets a dense document number and each searchable value
+ * (classification, number of servings, normalized ingredient name, instruction token) maps to a compressed bitmap
+ * of the documents holding it, so a filter is answered by intersecting bitmaps. The ingredient names also feed a
+ * {@link TrigramIndex} for autocomplete and typo-tolerant ingredient filters.
+ * <p>
+ * An instruction search matches the recipes whose instructions contain the search text, ignoring case, exactly as
+ * the database query does. Every word of the search lies inside some indexed token of a match, so the tokens
+ * containing each word narrow the candidates and the lowercased instructions kept per recipe confirm them.
+ * <p>
+ * Document numbers are handed out in {@code dateCreated} order when the index is built and in commit order after
+ * that, so walking a result bitmap backwards yields newest recipes first.
+ * <p>
+ * Refreshes are serialized, each reading the committed rows and applying them before the next one reads, so the
+ * last refresh of a recipe always leaves its latest state behind. A rebuild scans into a fresh set of postings
+ * while the current one keeps answering, replays the recipes refreshed meanwhile and then swaps it in. Deleted
+ * recipes leave their document number behind; once those outnumber the live ones the postings are renumbered.
+ * A refresh that fails hands filters back to the database until a scheduled rebuild succeeds.
+ */
+@Slf4j
+@Component
+public class RecipeSearchIndex implements DisposableBean {
+
+    private static final String TOKEN_SEPARATOR = "[^\\p{L}\\p{N}]+";
+    private static final long DOCUMENT_RANGE_END = 1L << 32;
+
+    private final RecipeRepository recipeRepository;
+    private final TransactionTemplate readTransaction;
+    private final boolean enabled;
+    private final int buildBatchSize;
+    private final Duration rebuildDelay;
+    private final ThreadPoolTaskScheduler scheduler;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Lock refreshLock = new ReentrantLock();
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+    private Postings postings = new Postings();
+    private Set<String> refreshedDuringRebuild;
+
+    private volatile boolean ready;
+
+    public RecipeSearchIndex(RecipeRepository recipeRepository,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${recipe.search-index.enabled:true}") boolean enabled,
+                             @Value("${recipe.search-index.build-batch-size:500}") int buildBatchSize,
+                             @Value("${recipe.search-index.rebuild-delay:5s}") Duration rebuildDelay) {
+        this.recipeRepository = recipeRepository;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction.setReadOnly(true);
+        this.enabled = enabled;
+        this.buildBatchSize = buildBatchSize;
+        this.rebuildDelay = rebuildDelay;
+        this.scheduler = new ThreadPoolTaskScheduler();
+        this.scheduler.setPoolSize(1);
+        this.scheduler.setThreadNamePrefix("recipe-search-index-");
+        this.scheduler.initialize();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * @return how many document numbers are handed out, including those of deleted recipes not yet renumbered
+     */
+    int documentSlots() {
+        lock.readLock().lock();
+        try {
+            return postings.recipeIdsByDocument.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        if (!enabled) {
+            log.info("Recipe search index is disabled, filters will be answered by the database");
+            return;
+        }
+        refreshLock.lock();
+        try {
+            refreshedDuringRebuild = new HashSet<>();
+        } finally {
+            refreshLock.unlock();
+        }
+        try {
+            Postings rebuilt = new Postings();
+            Pageable pageable = PageRequest.of(0, buildBatchSize, Sort.by("dateCreated", "id"));
+            boolean hasNext = true;
+            while (hasNext) {
+                final Pageable batch = pageable;
+                hasNext = Boolean.TRUE.equals(readTransaction.execute(status -> {
+                    Page<Recipe> recipes = recipeRepository.findAll(batch);
+                    recipes.forEach(rebuilt::index);
+                    return recipes.hasNext();
+                }));
+                pageable = pageable.next();
+            }
+            refreshLock.lock();
+            try {
+                rebuilt.apply(refreshedDuringRebuild, load(refreshedDuringRebuild));
+                swap(rebuilt);
+                ready = true;
+            } finally {
+                refreshLock.unlock();
+            }
+            log.info("Recipe search index built with {} recipes", rebuilt.recipesById.size());
+        } finally {
+            refreshLock.lock();
+            try {
+                refreshedDuringRebuild = null;
+            } finally {
+                refreshLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Collects the ids changed by the current transaction and re-indexes them once it commits, so a rolled back
+     * write never reaches the index and a recipe touched many times in one transaction is only reloaded once.
+     */
+    @EventListener
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            refresh(Collections.singleton(event.getRecipeId()));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Set<String> pending = (Set<String>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Set<String> changedIds = new HashSet<>();
+            TransactionSynchronizationManager.bindResource(this, changedIds);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresh(changedIds);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(RecipeSearchIndex.this);
+                }
+            });
+            pending = changedIds;
+        }
+        pending.add(event.getRecipeId());
+    }
+
+    /**
+     * Runs the filter against the index and returns the requested offset page. Returns empty when the index cannot
+     * answer the query, either because it has not been built yet or because the instruction search has no word to
+     * narrow the candidates with, in which case the caller should fall back to the database.
+     */
+    public Optional<SearchHits> search(RecipeFilterDto filter, int page, int size) {
+        return withMatches(filter, matches -> {
+            long total = matches.getLongCardinality();
+            long offset = (long) page * size;
+            if (offset >= total) {
+                return new SearchHits(Collections.emptyList(), total, false);
+            }
+            int newest = matches.select((int) (total - 1 - offset));
+            matches.remove(newest + 1L, DOCUMENT_RANGE_END);
+            return newestFirst(matches, total, size);
+        });
+    }
+
+    /**
+     * Runs the filter against the index and returns up to {@code size} matches that come after the recipe with id
+     * {@code afterRecipeId} in newest-first order, or the first matches when no id is given. Returns empty in the
+     * same cases as {@link #search(RecipeFilterDto, int, int)} and when the cursor recipe is no longer indexed.
+     */
+    public Optional<SearchHits> searchAfter(RecipeFilterDto filter, String afterRecipeId, int size) {
+        return withMatches(filter, matches -> {
+            long total = matches.getLongCardinality();
+            if (afterRecipeId != null) {
+                IndexedRecipe after = postings.recipesById.get(afterRecipeId);
+                if (after == null) {
+                    return null;
+                }
+                matches.remove(after.getDocument(), DOCUMENT_RANGE_END);
+            }
+            return newestFirst(matches, total, size);
+        });
+    }
+
+    /**
+     * Runs the filter against the index and returns every match, newest first. Returns empty in the same cases as
+     * {@link #search(RecipeFilterDto, int, int)}.
+     */
+    public Optional<List<String>> searchAll(RecipeFilterDto filter) {
+        return withMatches(filter, matches -> newestFirst(matches, matches.getLongCardinality(), matches.getCardinality()))
+                .map(SearchHits::getRecipeIds);
+    }
+
+    /**
+     * Returns up to {@code limit} indexed ingredient names starting with {@code prefix}, followed by similarly
+     * spelled ones, or empty when the index has not been built.
+     */
+    public Optional<List<String>> suggestIngredients(String prefix, int limit) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            return Optional.of(postings.ingredientNames.complete(Utils.normalizeIngredientName(prefix), limit));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the indexed ingredient name closest to {@code name}, which is {@code name} itself when some recipe
+     * uses it. Empty when nothing is similar enough or the index has not been built.
+     */
+    public Optional<String> closestIngredient(String name) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            return postings.ingredientNames.closest(Utils.normalizeIngredientName(name));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Optional<SearchHits> withMatches(RecipeFilterDto filter, Function<RoaringBitmap, SearchHits> collector) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        List<String> instructionTokens = tokenize(filter.getInstructionSearch());
+        if (hasText(filter.getInstructionSearch()) && instructionTokens.isEmpty()) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            Postings current = postings;
+            RoaringBitmap matches = current.liveDocuments.clone();
+            if (filter.getClassification() != null) {
+                matches.and(postingsOrEmpty(current.classificationPostings.get(filter.getClassification())));
+            }
+            if (filter.getNumberOfServings() != 0) {
+                matches.and(postingsOrEmpty(current.servingsPostings.get(filter.getNumberOfServings())));
+            }
+            andIngredient(current, matches, filter);
+            andInstructions(current, matches, filter.getInstructionSearch(), instructionTokens);
+            return Optional.ofNullable(collector.apply(matches));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counts the recipes per classification, per number of servings and per ingredient in one pass over the
+     * postings, see {@link RecipeFacetsDto}. Returns empty in the same cases as
+     * {@link #search(RecipeFilterDto, int, int)}.
+     */
+    public Optional<RecipeFacetsDto> facets(RecipeFilterDto filter, int topIngredients) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        List<String> instructionTokens = tokenize(filter.getInstructionSearch());
+        if (hasText(filter.getInstructionSearch()) && instructionTokens.isEmpty()) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            Postings current = postings;
+            RoaringBitmap base = current.liveDocuments.clone();
+            andIngredient(current, base, filter);
+            andInstructions(current, base, filter.getInstructionSearch(), instructionTokens);
+            RoaringBitmap classificationMatches = filter.getClassification() == null
+                    ? base
+                    : RoaringBitmap.and(base, postingsOrEmpty(current.classificationPostings.get(filter.getClassification())));
+            RoaringBitmap servingsMatches = filter.getNumberOfServings() == 0
+                    ? base
+                    : RoaringBitmap.and(base, postingsOrEmpty(current.servingsPostings.get(filter.getNumberOfServings())));
+            RoaringBitmap matches = RoaringBitmap.and(classificationMatches, servingsMatches);
+
+            Map<RecipeClassification, Long> classifications = new EnumMap<>(RecipeClassification.class);
+            for (RecipeClassification classification : RecipeClassification.values()) {
+                classifications.put(classification, (long) RoaringBitmap.andCardinality(servingsMatches,
+                        postingsOrEmpty(current.classificationPostings.get(classification))));
+            }
+            Map<Long, Long> servings = new TreeMap<>();
+            current.servingsPostings.forEach((numberOfServings, postings) -> {
+                long count = RoaringBitmap.andCardinality(classificationMatches, postings);
+                if (count > 0) {
+                    servings.put(numberOfServings, count);
+                }
+            });
+            return Optional.of(RecipeFacetsDto.builder()
+                    .total(matches.getLongCardinality())
+                    .classifications(classifications)
+                    .servings(servings)
+                    .ingredients(topIngredients(current, matches, topIngredients))
+                    .build());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Map<String, Long> topIngredients(Postings current, RoaringBitmap matches, int limit) {
+        Comparator<Map.Entry<String, Long>> mostUsedFirst = Map.Entry.<String, Long>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey());
+        PriorityQueue<Map.Entry<String, Long>> top = new PriorityQueue<>(limit + 1, mostUsedFirst.reversed());
+        current.ingredientPostings.forEach((name, postings) -> {
+            long count = RoaringBitmap.andCardinality(matches, postings);
+            if (count > 0) {
+                top.add(Map.entry(name, count));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+        });
+        Map<String, Long> ingredients = new LinkedHashMap<>();
+        top.stream().sorted(mostUsedFirst).forEach(entry -> ingredients.put(entry.getKey(), entry.getValue()));
+        return ingredients;
+    }
+
+    private static void andIngredient(Postings current, RoaringBitmap matches, RecipeFilterDto filter) {
+        String ingredientName = Utils.normalizeIngredientName(filter.getIngredientName());
+        if (hasText(ingredientName)) {
+            RoaringBitmap ingredientMatches = postingsOrEmpty(current.ingredientPostings.get(ingredientName));
+            if (filter.isIncludeIngredient()) {
+                matches.and(ingredientMatches);
+            } else {
+                matches.andNot(ingredientMatches);
+            }
+        }
+    }
+
+    private static void andInstructions(Postings current, RoaringBitmap matches, String instructionSearch,
+                                        List<String> instructionTokens) {
+        for (String token : instructionTokens) {
+            if (matches.isEmpty()) {
+                return;
+            }
+            matches.and(RoaringBitmap.or(current.instructionPostings.entrySet().stream()
+                    .filter(posting -> posting.getKey().contains(token))
+                    .map(Map.Entry::getValue)
+                    .iterator()));
+        }
+        if (!instructionTokens.isEmpty()) {
+            String search = instructionSearch.toLowerCase(Locale.ROOT);
+            RoaringBitmap mismatches = new RoaringBitmap();
+            matches.forEach((int document) -> {
+                if (!current.recipesById.get(current.recipeIdsByDocument.get(document)).getInstructions().contains(search)) {
+                    mismatches.add(document);
+                }
+            });
+            matches.andNot(mismatches);
+        }
+    }
+
+    private SearchHits newestFirst(RoaringBitmap candidates, long total, int size) {
+        List<String> recipeIds = new ArrayList<>(size);
+        IntIterator documents = candidates.getReverseIntIterator();
+        while (documents.hasNext() && recipeIds.size() < size) {
+            recipeIds.add(postings.recipeIdsByDocument.get(documents.next()));
+        }
+        return new SearchHits(recipeIds, total, documents.hasNext());
+    }
+
+    private void refresh(Collection<String> recipeIds) {
+        refreshLock.lock();
+        try {
+            if (refreshedDuringRebuild != null) {
+                refreshedDuringRebuild.addAll(recipeIds);
+            }
+            Map<String, Recipe> recipes = load(recipeIds);
+            lock.writeLock().lock();
+            try {
+                postings.apply(recipeIds, recipes);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            int deleted = postings.recipeIdsByDocument.size() - postings.recipesById.size();
+            if (deleted >= buildBatchSize && deleted > postings.recipesById.size()) {
+                log.debug("Renumbering search index, {} of {} documents deleted", deleted,
+                        postings.recipeIdsByDocument.size());
+                swap(postings.compact());
+            }
+        } catch (RuntimeException exception) {
+            log.error("Failed to refresh search index for recipes {}, rebuilding in {}", recipeIds, rebuildDelay, exception);
+            ready = false;
+            scheduleRebuild();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private Map<String, Recipe> load(Collection<String> recipeIds) {
+        if (recipeIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, Recipe> recipes = readTransaction.execute(status -> {
+            Map<String, Recipe> loaded = new HashMap<>();
+            recipeRepository.findAllById(recipeIds).forEach(recipe -> {
+                recipe.getIngredients().size();
+                loaded.put(recipe.getId(), recipe);
+            });
+            return loaded;
+        });
+        return recipes == null ? Collections.emptyMap() : recipes;
+    }
+
+    private void swap(Postings replacement) {
+        lock.writeLock().lock();
+        try {
+            postings = replacement;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void scheduleRebuild() {
+        if (!rebuildScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        scheduler.schedule(() -> {
+            rebuildScheduled.set(false);
+            try {
+                rebuild();
+            } catch (RuntimeException exception) {
+                log.error("Failed to rebuild search index, retrying in {}", rebuildDelay, exception);
+                scheduleRebuild();
+            }
+        }, Instant.now().plus(rebuildDelay));
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdown();
+    }
+
+    private static <K> void removePosting(Map<K, RoaringBitmap> postings, K key, int document) {
+        RoaringBitmap bitmap = postings.get(key);
+        if (bitmap != null) {
+            bitmap.remove(document);
+            if (bitmap.isEmpty()) {
+                postings.remove(key);
+            }
+        }
+    }
+
+    private static RoaringBitmap postingsOrEmpty(RoaringBitmap postings) {
+        return postings == null ? new RoaringBitmap() : postings;
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    private static String lowerCase(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null) {
+            return Collections.emptyList();
+        }
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split(TOKEN_SEPARATOR))
+                .filter(token -> !token.isEmpty())
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * One generation of the index. The live one is only changed under the write lock, a fresh one is filled
+     * privately and then swapped in.
+     */
+    private static class Postings {
+        private final Map<String, IndexedRecipe> recipesById = new HashMap<>();
+        private final List<String> recipeIdsByDocument = new ArrayList<>();
+        private final RoaringBitmap liveDocuments = new RoaringBitmap();
+        private final Map<RecipeClassification, RoaringBitmap> classificationPostings = new EnumMap<>(RecipeClassification.class);
+        private final Map<Long, RoaringBitmap> servingsPostings = new HashMap<>();
+        private final Map<String, RoaringBitmap> ingredientPostings = new HashMap<>();
+        private final NavigableMap<String, RoaringBitmap> instructionPostings = new TreeMap<>();
+        private final TrigramIndex ingredientNames = new TrigramIndex();
+
+        void apply(Collection<String> recipeIds, Map<String, Recipe> recipes) {
+            for (String recipeId : recipeIds) {
+                Recipe recipe = recipes.get(recipeId);
+                if (recipe == null) {
+                    remove(recipeId);
+                } else {
+                    index(recipe);
+                }
+            }
+        }
+
+        void index(Recipe recipe) {
+            IndexedRecipe previous = recipesById.get(recipe.getId());
+            int document;
+            if (previous != null) {
+                document = previous.getDocument();
+                unpost(previous);
+            } else {
+                document = recipeIdsByDocument.size();
+                recipeIdsByDocument.add(recipe.getId());
+            }
+            post(recipe.getId(), new IndexedRecipe(document,
+                    recipe.getClassification(),
+                    recipe.getNumberOfServings(),
+                    recipe.getIngredients().stream()
+                            .map(Ingredient::getNormalizedName)
+                            .filter(Objects::nonNull)
+                            .collect(Collectors.toSet()),
+                    lowerCase(recipe.getInstructions()),
+                    new HashSet<>(tokenize(recipe.getInstructions()))));
+        }
+
+        /**
+         * Copies the live documents into fresh postings numbered without the gaps deleted recipes left, keeping
+         * their order.
+         */
+        Postings compact() {
+            Postings compacted = new Postings();
+            for (String recipeId : recipeIdsByDocument) {
+                if (recipeId != null) {
+                    IndexedRecipe indexed = recipesById.get(recipeId);
+                    compacted.recipeIdsByDocument.add(recipeId);
+                    compacted.post(recipeId, new IndexedRecipe(compacted.recipeIdsByDocument.size() - 1,
+                            indexed.getClassification(),
+                            indexed.getNumberOfServings(),
+                            indexed.getIngredientNames(),
+                            indexed.getInstructions(),
+                            indexed.getInstructionTokens()));
+                }
+            }
+            return compacted;
+        }
+
+        private void post(String recipeId, IndexedRecipe indexed) {
+            int document = indexed.getDocument();
+            recipesById.put(recipeId, indexed);
+            liveDocuments.add(document);
+            if (indexed.getClassification() != null) {
+                classificationPostings.computeIfAbsent(indexed.getClassification(), key -> new RoaringBitmap()).add(document);
+            }
+            servingsPostings.computeIfAbsent(indexed.getNumberOfServings(), key -> new RoaringBitmap()).add(document);
+            indexed.getIngredientNames().forEach(name -> ingredientPostings.computeIfAbsent(name, key -> {
+                ingredientNames.add(key);
+                return new RoaringBitmap();
+            }).add(document));
+            indexed.getInstructionTokens().forEach(token -> instructionPostings.computeIfAbsent(token, key -> new RoaringBitmap()).add(document));
+        }
+
+        private void remove(String recipeId) {
+            IndexedRecipe previous = recipesById.remove(recipeId);
+            if (previous != null) {
+                liveDocuments.remove(previous.getDocument());
+                unpost(previous);
+                recipeIdsByDocument.set(previous.getDocument(), null);
+            }
+        }
+
+        private void unpost(IndexedRecipe indexed) {
+            int document = indexed.getDocument();
+            if (indexed.getClassification() != null) {
+                removePosting(classificationPostings, indexed.getClassification(), document);
+            }
+            removePosting(servingsPostings, indexed.getNumberOfServings(), document);
+            indexed.getIngredientNames().forEach(name -> {
+                removePosting(ingredientPostings, name, document);
+                if (!ingredientPostings.containsKey(name)) {
+                    ingredientNames.remove(name);
+                }
+            });
+            indexed.getInstructionTokens().forEach(token -> removePosting(instructionPostings, token, document));
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class IndexedRecipe {
+        private final int document;
+        private final RecipeClassification classification;
+        private final long numberOfServings;
+        private final Set<String> ingredientNames;
+        private final String instructions;
+        private final Set<String> instructionTokens;
+    }
+}
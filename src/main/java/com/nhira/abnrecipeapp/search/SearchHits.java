@@ -0,0 +1,16 @@
+package com.nhira.abnrecipeapp.search;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * One page of recipe ids matched by {@link RecipeSearchIndex}, newest first, or by {@link RecipeFullTextSearch},
+ * best ranked first, with the total number of matches and whether more matches follow the page.
+ */
+@Value
+public class SearchHits {
+    List<String> recipeIds;
+    long total;
+    boolean hasNext;
+}
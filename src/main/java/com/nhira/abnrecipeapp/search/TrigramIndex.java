@@ -0,0 +1,125 @@
+package com.nhira.abnrecipeapp.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Dictionary of terms with a trigram inverted index for typo-tolerant lookups. Trigrams and similarity follow
+ * PostgreSQL's {@code pg_trgm}: every word is padded with two leading blanks and one trailing blank, and the
+ * similarity of two terms is the number of trigrams they share divided by the number of distinct trigrams of both.
+ * <p>
+ * Not thread-safe, callers guard it with their own lock.
+ */
+public class TrigramIndex {
+
+    /**
+     * Least similarity for two terms to count as a match, {@code pg_trgm.similarity_threshold}'s default.
+     */
+    static final double SIMILARITY_THRESHOLD = 0.3;
+
+    private static final String WORD_SEPARATOR = "[^\\p{L}\\p{N}]+";
+
+    private final NavigableSet<String> terms = new TreeSet<>();
+    private final Map<String, Set<String>> termsByTrigram = new HashMap<>();
+
+    public void add(String term) {
+        if (terms.add(term)) {
+            trigrams(term).forEach(trigram -> termsByTrigram.computeIfAbsent(trigram, key -> new HashSet<>()).add(term));
+        }
+    }
+
+    public void remove(String term) {
+        if (terms.remove(term)) {
+            for (String trigram : trigrams(term)) {
+                Set<String> postings = termsByTrigram.get(trigram);
+                postings.remove(term);
+                if (postings.isEmpty()) {
+                    termsByTrigram.remove(trigram);
+                }
+            }
+        }
+    }
+
+    public void clear() {
+        terms.clear();
+        termsByTrigram.clear();
+    }
+
+    /**
+     * Returns up to {@code limit} terms starting with {@code prefix} in alphabetical order, followed, when there
+     * are fewer of those, by the terms most similar to it.
+     */
+    public List<String> complete(String prefix, int limit) {
+        Set<String> completions = new LinkedHashSet<>();
+        for (String term : terms.subSet(prefix, true, prefix + Character.MAX_VALUE, true)) {
+            if (completions.size() == limit) {
+                return new ArrayList<>(completions);
+            }
+            completions.add(term);
+        }
+        for (String term : similar(prefix)) {
+            if (completions.size() == limit) {
+                break;
+            }
+            completions.add(term);
+        }
+        return new ArrayList<>(completions);
+    }
+
+    /**
+     * Returns {@code term} itself when indexed, otherwise the most similar indexed term, if any reaches
+     * {@link #SIMILARITY_THRESHOLD}.
+     */
+    public Optional<String> closest(String term) {
+        if (terms.contains(term)) {
+            return Optional.of(term);
+        }
+        List<String> similar = similar(term);
+        return similar.isEmpty() ? Optional.empty() : Optional.of(similar.get(0));
+    }
+
+    private List<String> similar(String term) {
+        Set<String> trigrams = trigrams(term);
+        Map<String, Integer> shared = new HashMap<>();
+        for (String trigram : trigrams) {
+            for (String candidate : termsByTrigram.getOrDefault(trigram, Collections.emptySet())) {
+                shared.merge(candidate, 1, Integer::sum);
+            }
+        }
+        Map<String, Double> similarities = new HashMap<>();
+        shared.forEach((candidate, count) -> {
+            double similarity = (double) count / (trigrams.size() + trigrams(candidate).size() - count);
+            if (similarity >= SIMILARITY_THRESHOLD) {
+                similarities.put(candidate, similarity);
+            }
+        });
+        List<String> similar = new ArrayList<>(similarities.keySet());
+        similar.sort(Comparator.<String>comparingDouble(similarities::get).reversed()
+                .thenComparing(Comparator.naturalOrder()));
+        return similar;
+    }
+
+    static Set<String> trigrams(String term) {
+        Set<String> trigrams = new HashSet<>();
+        for (String word : term.split(WORD_SEPARATOR)) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            String padded = "  " + word + " ";
+            for (int start = 0; start + 3 <= padded.length(); start++) {
+                trigrams.add(padded.substring(start, start + 3));
+            }
+        }
+        return trigrams;
+    }
+}
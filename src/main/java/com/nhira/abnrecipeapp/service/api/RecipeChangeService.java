@@ -0,0 +1,20 @@
+package com.nhira.abnrecipeapp.service.api;
+
+import com.nhira.abnrecipeapp.dto.RecipeChangeDto;
+import com.nhira.abnrecipeapp.dto.RecipeChangesDto;
+import com.nhira.abnrecipeapp.dto.RecipeSyncDto;
+import com.nhira.abnrecipeapp.utils.ApiResponse;
+import com.nhira.abnrecipeapp.utils.RecipeSyncToken;
+import com.nhira.abnrecipeapp.utils.enums.ChangeType;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface RecipeChangeService {
+    void record(String recipeId, ChangeType changeType);
+    void record(Collection<String> recipeIds, ChangeType changeType);
+    ApiResponse<RecipeChangesDto> getChanges(long since, int limit);
+    List<RecipeChangeDto> findChanges(long since, int limit);
+    long getLatestSequence();
+    ApiResponse<RecipeSyncDto> sync(RecipeSyncToken after, int size);
+}
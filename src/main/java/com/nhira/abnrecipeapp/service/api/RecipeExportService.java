@@ -0,0 +1,11 @@
+package com.nhira.abnrecipeapp.service.api;
+
+import com.nhira.abnrecipeapp.dto.RecipeFilterDto;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface RecipeExportService {
+    long exportRecipes(RecipeFilterDto filter, OutputStream out) throws IOException;
+    long streamRecipes(RecipeFilterDto filter, Long servings, OutputStream out) throws IOException;
+}
@@ -0,0 +1,11 @@
+package com.nhira.abnrecipeapp.service.api;
+
+import com.nhira.abnrecipeapp.dto.RecipeImportResultDto;
+import com.nhira.abnrecipeapp.utils.ApiResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface RecipeImportService {
+    ApiResponse<RecipeImportResultDto> importRecipes(InputStream body, boolean ndjson) throws IOException;
+}
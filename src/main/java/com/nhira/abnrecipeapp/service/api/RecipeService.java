@@ -1,15 +1,35 @@
 package com.nhira.abnrecipeapp.service.api;
 
+import com.nhira.abnrecipeapp.dto.CursorPageDto;
+import com.nhira.abnrecipeapp.dto.RecipeBatchDto;
 import com.nhira.abnrecipeapp.dto.RecipeDto;
+import com.nhira.abnrecipeapp.dto.RecipeFacetsDto;
 import com.nhira.abnrecipeapp.dto.RecipeFilterDto;
+import com.nhira.abnrecipeapp.dto.ShoppingListDto;
+import com.nhira.abnrecipeapp.dto.ShoppingListItemDto;
 import com.nhira.abnrecipeapp.utils.ApiResponse;
+import com.nhira.abnrecipeapp.utils.RecipeFields;
+import com.nhira.abnrecipeapp.utils.RecipeVersion;
 import org.springframework.data.domain.Page;
 
+import java.util.List;
+import java.util.Map;
+
 public interface RecipeService {
     Page<RecipeDto> getAllRecipes(int page, int size);
+    CursorPageDto<RecipeDto> getAllRecipes(String cursor, int size, boolean includeTotal);
+    Page<Map<String, Object>> getAllRecipes(int page, int size, RecipeFields fields);
     Page<RecipeDto> filterRecipes(RecipeFilterDto filter, int page, int size);
+    CursorPageDto<RecipeDto> filterRecipes(RecipeFilterDto filter, String cursor, int size, boolean includeTotal);
+    Page<Map<String, Object>> filterRecipes(RecipeFilterDto filter, int page, int size, RecipeFields fields);
     ApiResponse<RecipeDto> createRecipe(RecipeDto recipeDto);
     ApiResponse<RecipeDto> updateRecipe(RecipeDto recipeDto);
     ApiResponse<RecipeDto> getRecipe(String id);
+    ApiResponse<RecipeBatchDto> getRecipes(List<String> ids);
+    ApiResponse<ShoppingListDto> getShoppingList(List<ShoppingListItemDto> items);
+    ApiResponse<RecipeFacetsDto> getFacets(RecipeFilterDto filter, int topIngredients);
+    ApiResponse<List<String>> suggestIngredients(String prefix, int limit);
+    RecipeVersion getRecipeVersion(String id);
+    RecipeVersion getRecipesVersion();
     ApiResponse<RecipeDto> deleteRecipe(String id);
 }
@@ -0,0 +1,172 @@
+package com.nhira.abnrecipeapp.service.impl;
+
+import com.nhira.abnrecipeapp.dto.RecipeChangeDto;
+import com.nhira.abnrecipeapp.dto.RecipeChangesDto;
+import com.nhira.abnrecipeapp.dto.RecipeDto;
+import com.nhira.abnrecipeapp.dto.RecipeSyncDto;
+import com.nhira.abnrecipeapp.mapper.DtoMapper;
+import com.nhira.abnrecipeapp.model.Recipe;
+import com.nhira.abnrecipeapp.model.RecipeChange;
+import com.nhira.abnrecipeapp.repository.RecipeChangeRepository;
+import com.nhira.abnrecipeapp.repository.RecipeRepository;
+import com.nhira.abnrecipeapp.service.api.RecipeChangeService;
+import com.nhira.abnrecipeapp.utils.ApiResponse;
+import com.nhira.abnrecipeapp.utils.RecipeSyncToken;
+import com.nhira.abnrecipeapp.utils.Utils;
+import com.nhira.abnrecipeapp.utils.enums.ChangeType;
+import com.nhira.abnrecipeapp.utils.enums.ResponseCode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Change feed over the {@code recipe_change} outbox. Writers record their changes in their own transaction, so a
+ * change is visible exactly when the write it describes is. Rows are inserted with one JDBC batch and no identity
+ * round-trip, keeping chunked imports batched.
+ * <p>
+ * Sequence numbers are taken at insert but become visible at commit, so a slow transaction can commit a number
+ * below one a reader already passed. Readers are therefore only shown changes older than
+ * {@code recipe.changes.settle-delay}, and writers flush their pending entity changes before recording, so the
+ * outbox insert really is the last statement of the transaction and the delay only has to cover the commit.
+ */
+@Slf4j
+@Service
+public class RecipeChangeServiceImpl implements RecipeChangeService {
+
+    private final RecipeChangeRepository recipeChangeRepository;
+    private final RecipeRepository recipeRepository;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final Duration settleDelay;
+
+    public RecipeChangeServiceImpl(RecipeChangeRepository recipeChangeRepository,
+                                   RecipeRepository recipeRepository,
+                                   NamedParameterJdbcTemplate jdbcTemplate,
+                                   @Value("${recipe.changes.settle-delay:1s}") Duration settleDelay) {
+        this.recipeChangeRepository = recipeChangeRepository;
+        this.recipeRepository = recipeRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.settleDelay = settleDelay;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(String recipeId, ChangeType changeType) {
+        record(List.of(recipeId), changeType);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Collection<String> recipeIds, ChangeType changeType) {
+        OffsetDateTime changedAt = OffsetDateTime.now();
+        SqlParameterSource[] changes = recipeIds.stream()
+                .map(recipeId -> new MapSqlParameterSource()
+                        .addValue("recipeId", recipeId)
+                        .addValue("changeType", changeType.name())
+                        .addValue("changedAt", changedAt))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate("INSERT INTO recipe_change (recipe_id, change_type, changed_at) " +
+                "VALUES (:recipeId, :changeType, :changedAt)", changes);
+        log.debug("Recorded {} {} recipe changes", changes.length, changeType);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ApiResponse<RecipeChangesDto> getChanges(long since, int limit) {
+        List<RecipeChangeDto> changes = findChanges(since, limit + 1);
+        boolean hasMore = changes.size() > limit;
+        if (hasMore) {
+            changes = changes.subList(0, limit);
+        }
+        RecipeChangesDto page = RecipeChangesDto.builder()
+                .changes(changes)
+                .nextSince(changes.isEmpty() ? since : changes.get(changes.size() - 1).getSequence())
+                .hasMore(hasMore)
+                .build();
+        return Utils.createResponse(page, true, ResponseCode.SUCCESS);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<RecipeChangeDto> findChanges(long since, int limit) {
+        return recipeChangeRepository.findChanges(since, OffsetDateTime.now().minus(settleDelay),
+                        PageRequest.of(0, limit))
+                .stream()
+                .map(DtoMapper.MAPPER::toRecipeChangeDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long getLatestSequence() {
+        return recipeChangeRepository.findLatestId();
+    }
+
+    /**
+     * Merges recipes modified after {@code after} with the deletions recorded after it into one chunk of at most
+     * {@code size} changes in time order. Each side is read with a keyset query of {@code size + 1} rows, so
+     * whatever is left over on either side means there is more to read.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ApiResponse<RecipeSyncDto> sync(RecipeSyncToken after, int size) {
+        OffsetDateTime before = OffsetDateTime.now().minus(settleDelay);
+        PageRequest pageable = PageRequest.of(0, size + 1);
+        List<Recipe> modified = recipeRepository.findModifiedAfter(after.getTimestamp(), after.getId(),
+                before, pageable);
+        List<RecipeChange> deleted = recipeChangeRepository.findChangesAfter(ChangeType.DELETED,
+                after.getTimestamp(), after.getId(), before, pageable);
+
+        Map<String, Recipe> latest = new LinkedHashMap<>();
+        RecipeSyncToken position = after;
+        int nextModified = 0;
+        int nextDeleted = 0;
+        for (int taken = 0; taken < size && (nextModified < modified.size() || nextDeleted < deleted.size()); taken++) {
+            Recipe recipe = nextModified < modified.size() ? modified.get(nextModified) : null;
+            RecipeChange deletion = nextDeleted < deleted.size() ? deleted.get(nextDeleted) : null;
+            if (deletion == null || (recipe != null && new RecipeSyncToken(recipe.getLastUpdated(), recipe.getId())
+                    .isBefore(deletion.getChangedAt(), deletion.getRecipeId()))) {
+                latest.remove(recipe.getId());
+                latest.put(recipe.getId(), recipe);
+                position = new RecipeSyncToken(recipe.getLastUpdated(), recipe.getId());
+                nextModified++;
+            } else {
+                latest.remove(deletion.getRecipeId());
+                latest.put(deletion.getRecipeId(), null);
+                position = new RecipeSyncToken(deletion.getChangedAt(), deletion.getRecipeId());
+                nextDeleted++;
+            }
+        }
+
+        List<RecipeDto> recipes = new ArrayList<>();
+        List<String> deletedIds = new ArrayList<>();
+        latest.forEach((id, recipe) -> {
+            if (recipe != null) {
+                recipes.add(DtoMapper.MAPPER.toRecipeDto(recipe));
+            } else {
+                deletedIds.add(id);
+            }
+        });
+        RecipeSyncDto chunk = RecipeSyncDto.builder()
+                .recipes(recipes)
+                .deletedIds(deletedIds)
+                .continuation(position.encode())
+                .hasMore(nextModified < modified.size() || nextDeleted < deleted.size())
+                .build();
+        return Utils.createResponse(chunk, true, ResponseCode.SUCCESS);
+    }
+}
@@ -0,0 +1,171 @@
+package com.nhira.abnrecipeapp.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.nhira.abnrecipeapp.dto.RecipeDto;
+import com.nhira.abnrecipeapp.dto.RecipeFilterDto;
+import com.nhira.abnrecipeapp.mapper.DtoMapper;
+import com.nhira.abnrecipeapp.model.Recipe;
+import com.nhira.abnrecipeapp.repository.RecipeRepository;
+import com.nhira.abnrecipeapp.search.IngredientNameSearch;
+import com.nhira.abnrecipeapp.search.RecipeFullTextSearch;
+import com.nhira.abnrecipeapp.search.RecipeSearchIndex;
+import com.nhira.abnrecipeapp.service.api.RecipeExportService;
+import com.nhira.abnrecipeapp.utils.ServingsScaler;
+import com.nhira.abnrecipeapp.utils.Utils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Writes recipes as NDJSON or server-sent events straight from a database cursor. Recipes are mapped in batches so
+ * their ingredients are loaded with one batched query per batch, and the persistence context is cleared after each
+ * batch to keep memory flat however large the catalogue is.
+ * <p>
+ * Every batch is flushed as soon as it is written. Event streams use the smaller {@code recipe.stream.batch-size}, so
+ * the first results reach a search UI before the cursor has gone far. They also match recipes as {@code /find} does:
+ * through the full-text search or the {@link RecipeSearchIndex} when either can answer the filter, loading the
+ * matched ids batch by batch, and through the database cursor otherwise.
+ */
+@Slf4j
+@Service
+public class RecipeExportServiceImpl implements RecipeExportService {
+
+    private final RecipeRepository recipeRepository;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter recipeWriter;
+    private final IngredientNameSearch ingredientNameSearch;
+    private final RecipeSearchIndex recipeSearchIndex;
+    private final RecipeFullTextSearch recipeFullTextSearch;
+    private final int batchSize;
+    private final int streamBatchSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public RecipeExportServiceImpl(RecipeRepository recipeRepository,
+                                   ObjectMapper objectMapper,
+                                   IngredientNameSearch ingredientNameSearch,
+                                   RecipeSearchIndex recipeSearchIndex,
+                                   RecipeFullTextSearch recipeFullTextSearch,
+                                   @Value("${recipe.export.batch-size:500}") int batchSize,
+                                   @Value("${recipe.stream.batch-size:50}") int streamBatchSize) {
+        this.recipeRepository = recipeRepository;
+        this.objectMapper = objectMapper;
+        this.recipeWriter = objectMapper.writerFor(RecipeDto.class);
+        this.ingredientNameSearch = ingredientNameSearch;
+        this.recipeSearchIndex = recipeSearchIndex;
+        this.recipeFullTextSearch = recipeFullTextSearch;
+        this.batchSize = batchSize;
+        this.streamBatchSize = streamBatchSize;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportRecipes(RecipeFilterDto filter, OutputStream out) throws IOException {
+        log.debug("Export recipes with criteria: {}", filter);
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        long exported = write(filter, batchSize, generator, recipe -> {
+            recipeWriter.writeValue(generator, recipe);
+            generator.writeRaw('\n');
+        });
+        generator.flush();
+        log.info("Exported {} recipes", exported);
+        return exported;
+    }
+
+    /**
+     * Writes every recipe matching the filter as a {@code recipe} event, rescaled to {@code servings} when given,
+     * then an {@code end} event with the count, so clients can tell a complete result from a dropped connection.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long streamRecipes(RecipeFilterDto filter, Long servings, OutputStream out) throws IOException {
+        log.debug("Stream recipes with criteria: {}", filter);
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        RecipeFilterDto matched = filter.matchIngredient(ingredientNameSearch::closest);
+        RecipeWriter writer = recipe -> {
+            generator.writeRaw("event:recipe\ndata:");
+            recipeWriter.writeValue(generator, ServingsScaler.scale(recipe, servings));
+            generator.writeRaw("\n\n");
+        };
+        Optional<List<String>> recipeIds = recipeFullTextSearch.searchAll(matched)
+                .or(() -> recipeSearchIndex.searchAll(matched));
+        long streamed = recipeIds.isPresent()
+                ? writeInOrder(recipeIds.get(), generator, writer)
+                : write(matched, streamBatchSize, generator, writer);
+        generator.writeRaw("event:end\ndata:{\"count\":" + streamed + "}\n\n");
+        generator.flush();
+        log.debug("Streamed {} recipes", streamed);
+        return streamed;
+    }
+
+    private long write(RecipeFilterDto filter, int batchSize, JsonGenerator generator, RecipeWriter writer)
+            throws IOException {
+        long written = 0;
+        try (Stream<Recipe> recipes = recipeRepository.streamFilter(
+                filter.getClassification() != null ? filter.getClassification().name() : null,
+                filter.getNumberOfServings(),
+                filter.getInstructionSearch(),
+                Utils.normalizeIngredientName(filter.getIngredientName()),
+                filter.isIncludeIngredient())) {
+            List<Recipe> batch = new ArrayList<>(batchSize);
+            Iterator<Recipe> iterator = recipes.iterator();
+            while (iterator.hasNext()) {
+                batch.add(iterator.next());
+                if (batch.size() >= batchSize) {
+                    written += write(batch, generator, writer);
+                }
+            }
+            written += write(batch, generator, writer);
+        }
+        return written;
+    }
+
+    private long writeInOrder(List<String> recipeIds, JsonGenerator generator, RecipeWriter writer) throws IOException {
+        long written = 0;
+        for (int from = 0; from < recipeIds.size(); from += streamBatchSize) {
+            List<String> chunk = recipeIds.subList(from, Math.min(from + streamBatchSize, recipeIds.size()));
+            Map<String, Recipe> recipesById = recipeRepository.findAllById(chunk).stream()
+                    .collect(Collectors.toMap(Recipe::getId, Function.identity()));
+            List<Recipe> batch = chunk.stream()
+                    .map(recipesById::get)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toCollection(ArrayList::new));
+            written += write(batch, generator, writer);
+        }
+        return written;
+    }
+
+    private int write(List<Recipe> batch, JsonGenerator generator, RecipeWriter writer) throws IOException {
+        for (Recipe recipe : batch) {
+            writer.write(DtoMapper.MAPPER.toRecipeDto(recipe));
+        }
+        generator.flush();
+        int written = batch.size();
+        batch.clear();
+        entityManager.clear();
+        return written;
+    }
+
+    @FunctionalInterface
+    private interface RecipeWriter {
+        void write(RecipeDto recipe) throws IOException;
+    }
+}
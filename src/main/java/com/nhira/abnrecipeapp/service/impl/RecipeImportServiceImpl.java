@@ -0,0 +1,200 @@
+package com.nhira.abnrecipeapp.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.nhira.abnrecipeapp.dto.RecipeDto;
+import com.nhira.abnrecipeapp.dto.RecipeImportFailureDto;
+import com.nhira.abnrecipeapp.dto.RecipeImportResultDto;
+import com.nhira.abnrecipeapp.mapper.DtoMapper;
+import com.nhira.abnrecipeapp.model.Recipe;
+import com.nhira.abnrecipeapp.service.api.RecipeChangeService;
+import com.nhira.abnrecipeapp.service.api.RecipeImportService;
+import com.nhira.abnrecipeapp.utils.ApiResponse;
+import com.nhira.abnrecipeapp.utils.Utils;
+import com.nhira.abnrecipeapp.utils.enums.ChangeType;
+import com.nhira.abnrecipeapp.utils.enums.ResponseCode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Streams recipes from a JSON array or NDJSON body and persists them in chunks, one transaction per chunk, so
+ * Hibernate can send the inserts as JDBC batches. Ids are assigned client-side by {@code BaseEntity.init}, so
+ * inserts need no identity round-trip. When a chunk fails, its records are retried one by one to isolate the
+ * failing ones, and the rest of the run continues.
+ */
+@Slf4j
+@Service
+public class RecipeImportServiceImpl implements RecipeImportService {
+
+    private final ObjectReader recipeReader;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final RecipeChangeService recipeChangeService;
+    private final int chunkSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public RecipeImportServiceImpl(ObjectMapper objectMapper,
+                                   Validator validator,
+                                   PlatformTransactionManager transactionManager,
+                                   RecipeChangeService recipeChangeService,
+                                   @Value("${recipe.import.chunk-size:500}") int chunkSize) {
+        this.recipeReader = objectMapper.readerFor(RecipeDto.class);
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.recipeChangeService = recipeChangeService;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public ApiResponse<RecipeImportResultDto> importRecipes(InputStream body, boolean ndjson) throws IOException {
+        ImportRun run = new ImportRun();
+        if (ndjson) {
+            readNdjson(body, run);
+        } else {
+            readJsonArray(body, run);
+        }
+        run.flush();
+
+        RecipeImportResultDto result = RecipeImportResultDto.builder()
+                .received(run.received)
+                .imported(run.imported)
+                .failed(run.failures.size())
+                .failures(run.failures)
+                .build();
+        log.info("Imported {} of {} recipes", result.getImported(), result.getReceived());
+        return run.failures.isEmpty()
+                ? Utils.createResponse(result, true, ResponseCode.SUCCESS)
+                : Utils.createResponse(result, false, ResponseCode.ERROR,
+                "Imported " + result.getImported() + " of " + result.getReceived() + " recipes");
+    }
+
+    private void readNdjson(InputStream body, ImportRun run) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                long index = run.received++;
+                try {
+                    run.accept(index, recipeReader.readValue(line));
+                } catch (JsonProcessingException exception) {
+                    run.fail(index, null, exception.getOriginalMessage());
+                }
+            }
+        }
+    }
+
+    private void readJsonArray(InputStream body, ImportRun run) throws IOException {
+        try (MappingIterator<RecipeDto> recipes = recipeReader.readValues(body)) {
+            while (recipes.hasNextValue()) {
+                long index = run.received;
+                try {
+                    RecipeDto recipeDto = recipes.nextValue();
+                    run.received++;
+                    run.accept(index, recipeDto);
+                } catch (JsonMappingException exception) {
+                    run.received++;
+                    run.fail(index, null, exception.getOriginalMessage());
+                }
+            }
+        } catch (JsonProcessingException exception) {
+            run.fail(run.received, null, "Unreadable input, import stopped: " + exception.getOriginalMessage());
+        }
+    }
+
+    private void persist(List<IndexedRecipe> chunk) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<String> recipeIds = new ArrayList<>(chunk.size());
+            for (IndexedRecipe recipe : chunk) {
+                Recipe entity = DtoMapper.MAPPER.toRecipeEntity(recipe.getRecipeDto());
+                entityManager.persist(entity);
+                recipeIds.add(entity.getId());
+            }
+            entityManager.flush();
+            recipeChangeService.record(recipeIds, ChangeType.CREATED);
+            entityManager.clear();
+        });
+    }
+
+    private class ImportRun {
+        private final List<IndexedRecipe> chunk = new ArrayList<>(chunkSize);
+        private final List<RecipeImportFailureDto> failures = new ArrayList<>();
+        private long received;
+        private long imported;
+
+        void accept(long index, RecipeDto recipeDto) {
+            Set<ConstraintViolation<RecipeDto>> violations = validator.validate(recipeDto);
+            if (!violations.isEmpty()) {
+                fail(index, recipeDto.getId(), violations.stream()
+                        .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining(", ")));
+                return;
+            }
+            chunk.add(new IndexedRecipe(index, recipeDto));
+            if (chunk.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        void fail(long index, String recipeId, String reason) {
+            failures.add(RecipeImportFailureDto.builder()
+                    .index(index)
+                    .recipeId(recipeId)
+                    .reason(reason)
+                    .build());
+        }
+
+        void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            try {
+                persist(chunk);
+                imported += chunk.size();
+            } catch (RuntimeException chunkFailure) {
+                log.debug("Import chunk of {} recipes failed, retrying one by one", chunk.size(), chunkFailure);
+                for (IndexedRecipe recipe : chunk) {
+                    try {
+                        persist(List.of(recipe));
+                        imported++;
+                    } catch (RuntimeException recordFailure) {
+                        fail(recipe.getIndex(), recipe.getRecipeDto().getId(),
+                                NestedExceptionUtils.getMostSpecificCause(recordFailure).getMessage());
+                    }
+                }
+            }
+            chunk.clear();
+        }
+    }
+
+    @lombok.Value
+    private static class IndexedRecipe {
+        long index;
+        RecipeDto recipeDto;
+    }
+}
@@ -1,79 +1,513 @@
 package com.nhira.abnrecipeapp.service.impl;
 
+import com.nhira.abnrecipeapp.config.CacheConfig;
+import com.nhira.abnrecipeapp.dto.CursorPageDto;
+import com.nhira.abnrecipeapp.dto.IngredientDto;
+import com.nhira.abnrecipeapp.dto.RecipeBatchDto;
 import com.nhira.abnrecipeapp.dto.RecipeDto;
+import com.nhira.abnrecipeapp.dto.RecipeFacetsDto;
 import com.nhira.abnrecipeapp.dto.RecipeFilterDto;
+import com.nhira.abnrecipeapp.dto.RecipeSummaryDto;
+import com.nhira.abnrecipeapp.dto.ShoppingListDto;
+import com.nhira.abnrecipeapp.dto.ShoppingListItemDto;
+import com.nhira.abnrecipeapp.events.RecipeChangedEvent;
+import com.nhira.abnrecipeapp.exceptions.RecipeConflictException;
 import com.nhira.abnrecipeapp.exceptions.RecipeNotFoundException;
 import com.nhira.abnrecipeapp.mapper.DtoMapper;
+import com.nhira.abnrecipeapp.metrics.RecipeMetrics;
+import com.nhira.abnrecipeapp.model.Ingredient;
 import com.nhira.abnrecipeapp.model.Recipe;
+import com.nhira.abnrecipeapp.repository.IngredientRepository;
 import com.nhira.abnrecipeapp.repository.RecipeRepository;
+import com.nhira.abnrecipeapp.search.IngredientNameSearch;
+import com.nhira.abnrecipeapp.search.RecipeFullTextSearch;
+import com.nhira.abnrecipeapp.search.RecipeSearchIndex;
+import com.nhira.abnrecipeapp.search.SearchHits;
+import com.nhira.abnrecipeapp.service.api.RecipeChangeService;
 import com.nhira.abnrecipeapp.service.api.RecipeService;
 import com.nhira.abnrecipeapp.utils.ApiResponse;
+import com.nhira.abnrecipeapp.utils.IngredientTotal;
+import com.nhira.abnrecipeapp.utils.RecipeCursor;
+import com.nhira.abnrecipeapp.utils.RecipeFields;
+import com.nhira.abnrecipeapp.utils.RecipeVersion;
 import com.nhira.abnrecipeapp.utils.Utils;
+import com.nhira.abnrecipeapp.utils.enums.ChangeType;
+import com.nhira.abnrecipeapp.utils.enums.RecipeClassification;
 import com.nhira.abnrecipeapp.utils.enums.ResponseCode;
+import com.nhira.abnrecipeapp.utils.enums.UnitOfMeasure;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class RecipeServiceImpl implements RecipeService {
+
+    /**
+     * Largest {@code IN} list sent in one statement when fetching recipes by id.
+     */
+    static final int BATCH_GET_CHUNK_SIZE = 500;
+
     private final RecipeRepository recipeRepository;
+    private final RecipeSearchIndex recipeSearchIndex;
+    private final RecipeFullTextSearch recipeFullTextSearch;
+    private final IngredientNameSearch ingredientNameSearch;
+    private final IngredientRepository ingredientRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RecipeChangeService recipeChangeService;
+    private final RecipeMetrics recipeMetrics;
 
     @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.RECIPE_PAGES, condition = "#page == 0", sync = true)
     public Page<RecipeDto> getAllRecipes(int page, int size) {
         log.debug("Get all recipes with");
         Pageable pageable = PageRequest.of(page, size, Sort.by("dateCreated").descending());
-        return recipeRepository.findAll(pageable).map(DtoMapper.MAPPER::toRecipeDto);
+        Page<RecipeDto> recipes = recipeMetrics.time("find-all",
+                () -> recipeRepository.findAll(pageable).map(DtoMapper.MAPPER::toRecipeDto));
+        recipeMetrics.recordResults("find-all", recipes.getNumberOfElements());
+        return recipes;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<RecipeDto> getAllRecipes(String cursor, int size, boolean includeTotal) {
+        log.debug("Get all recipes after cursor: {}", cursor);
+        RecipeCursor after = RecipeCursor.decode(cursor);
+        Pageable pageable = PageRequest.of(0, size);
+        CursorPageDto<RecipeDto> recipes = recipeMetrics.time("find-all-cursor", () -> {
+            Slice<Recipe> slice = after == null
+                    ? recipeRepository.findNewest(pageable)
+                    : recipeRepository.findOlderThan(after.getDateCreated(), after.getId(), pageable);
+            return toCursorPage(slice.getContent(), slice.hasNext(), size,
+                    includeTotal ? recipeRepository.count() : null);
+        });
+        recipeMetrics.recordResults("find-all-cursor", recipes.getContent().size());
+        return recipes;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Map<String, Object>> getAllRecipes(int page, int size, RecipeFields fields) {
+        log.debug("Get all recipes with fields: {}", fields.getNames());
+        Pageable pageable = PageRequest.of(page, size, Sort.by("dateCreated").descending());
+        Page<Map<String, Object>> recipes = recipeMetrics.time("find-all-fields", () -> fields.requiresEntity()
+                ? recipeRepository.findAll(pageable).map(fields::project)
+                : recipeRepository.findAllSummaries(pageable).map(fields::project));
+        recipeMetrics.recordResults("find-all-fields", recipes.getNumberOfElements());
+        return recipes;
     }
 
     @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.RECIPE_FILTERS, condition = "#page == 0", sync = true)
     public Page<RecipeDto> filterRecipes(RecipeFilterDto filter, int page, int size) {
         log.debug("Filter recipes with criteria: {}", filter);
+        RecipeFilterDto matched = matchIngredient(filter);
+        Page<RecipeDto> recipes = recipeMetrics.time("find", matched, () -> findPage(matched, page, size));
+        recipeMetrics.recordResults("find", recipes.getNumberOfElements());
+        return recipes;
+    }
+
+    private Page<RecipeDto> findPage(RecipeFilterDto filter, int page, int size) {
+        Pageable pageable = PageRequest.of(page, size, Sort.by("dateCreated").descending());
+        return search(filter, page, size)
+                .<Page<RecipeDto>>map(found -> new PageImpl<>(toRecipeDtos(findAllInOrder(found.getRecipeIds())),
+                        pageable, found.getTotal()))
+                .orElseGet(() -> recipeRepository.filter(
+                        filter.getClassification() != null ? filter.getClassification().name() : null,
+                        filter.getNumberOfServings(),
+                        filter.getInstructionSearch(),
+                        Utils.normalizeIngredientName(filter.getIngredientName()),
+                        filter.isIncludeIngredient(),
+                        pageable
+                ).map(DtoMapper.MAPPER::toRecipeDto));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<RecipeDto> filterRecipes(RecipeFilterDto filter, String cursor, int size, boolean includeTotal) {
+        log.debug("Filter recipes with criteria: {} after cursor: {}", filter, cursor);
+        RecipeCursor after = RecipeCursor.decode(cursor);
+        RecipeFilterDto matched = matchIngredient(filter);
+        CursorPageDto<RecipeDto> recipes = recipeMetrics.time("find-cursor", matched,
+                () -> findAfter(matched, after, size, includeTotal));
+        recipeMetrics.recordResults("find-cursor", recipes.getContent().size());
+        return recipes;
+    }
+
+    private CursorPageDto<RecipeDto> findAfter(RecipeFilterDto filter, RecipeCursor after, int size, boolean includeTotal) {
+        Optional<SearchHits> hits = recipeSearchIndex.searchAfter(filter, after == null ? null : after.getId(), size);
+        recipeMetrics.recordSearchIndex(hits.isPresent());
+        if (hits.isPresent()) {
+            return toCursorPage(findAllInOrder(hits.get().getRecipeIds()), hits.get().isHasNext(), size,
+                    includeTotal ? hits.get().getTotal() : null);
+        }
+        String classification = filter.getClassification() != null ? filter.getClassification().name() : null;
+        String ingredientName = Utils.normalizeIngredientName(filter.getIngredientName());
+        Pageable pageable = PageRequest.of(0, size);
+        Slice<Recipe> recipes = after == null
+                ? recipeRepository.filterNewest(classification, filter.getNumberOfServings(),
+                filter.getInstructionSearch(), ingredientName, filter.isIncludeIngredient(), pageable)
+                : recipeRepository.filterOlderThan(classification, filter.getNumberOfServings(),
+                filter.getInstructionSearch(), ingredientName, filter.isIncludeIngredient(),
+                after.getDateCreated(), after.getId(), pageable);
+        Long total = includeTotal
+                ? recipeRepository.countFilter(classification, filter.getNumberOfServings(),
+                filter.getInstructionSearch(), ingredientName, filter.isIncludeIngredient())
+                : null;
+        return toCursorPage(recipes.getContent(), recipes.hasNext(), size, total);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Map<String, Object>> filterRecipes(RecipeFilterDto filter, int page, int size, RecipeFields fields) {
+        log.debug("Filter recipes with criteria: {} and fields: {}", filter, fields.getNames());
+        RecipeFilterDto matched = matchIngredient(filter);
+        Page<Map<String, Object>> recipes = recipeMetrics.time("find-fields", matched,
+                () -> findPage(matched, page, size, fields));
+        recipeMetrics.recordResults("find-fields", recipes.getNumberOfElements());
+        return recipes;
+    }
+
+    private Page<Map<String, Object>> findPage(RecipeFilterDto filter, int page, int size, RecipeFields fields) {
         Pageable pageable = PageRequest.of(page, size, Sort.by("dateCreated").descending());
-        return recipeRepository.filter(
-                filter.getClassification() != null ? filter.getClassification().name() : null,
-                filter.getNumberOfServings(),
-                filter.getInstructionSearch(),
-                filter.getIngredientName(),
-                filter.isIncludeIngredient(),
-                pageable
-        ).map(DtoMapper.MAPPER::toRecipeDto);
+        Optional<SearchHits> hits = search(filter, page, size);
+        if (hits.isPresent()) {
+            List<String> recipeIds = hits.get().getRecipeIds();
+            List<Map<String, Object>> content = fields.requiresEntity()
+                    ? findAllInOrder(recipeIds).stream().map(fields::project).collect(Collectors.toList())
+                    : findSummariesInOrder(recipeIds).stream().map(fields::project).collect(Collectors.toList());
+            return new PageImpl<>(content, pageable, hits.get().getTotal());
+        }
+        String classification = filter.getClassification() != null ? filter.getClassification().name() : null;
+        String ingredientName = Utils.normalizeIngredientName(filter.getIngredientName());
+        return fields.requiresEntity()
+                ? recipeRepository.filter(classification, filter.getNumberOfServings(), filter.getInstructionSearch(),
+                ingredientName, filter.isIncludeIngredient(), pageable).map(fields::project)
+                : recipeRepository.filterSummaries(classification, filter.getNumberOfServings(), filter.getInstructionSearch(),
+                ingredientName, filter.isIncludeIngredient(), pageable).map(fields::project);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ApiResponse<RecipeFacetsDto> getFacets(RecipeFilterDto filter, int topIngredients) {
+        log.debug("Count facets for criteria: {}", filter);
+        RecipeFilterDto matched = matchIngredient(filter);
+        RecipeFacetsDto facets = recipeMetrics.time("facets", matched, () -> {
+            Optional<RecipeFacetsDto> indexed = recipeSearchIndex.facets(matched, topIngredients);
+            recipeMetrics.recordSearchIndex(indexed.isPresent());
+            return indexed.orElseGet(() -> countFacets(matched, topIngredients));
+        });
+        return Utils.createResponse(facets, true, ResponseCode.SUCCESS);
+    }
+
+    /**
+     * Database fallback for {@link #getFacets}: one grouped query per facet, the classification and servings ones
+     * leaving out their own criterion, plus the total.
+     */
+    private RecipeFacetsDto countFacets(RecipeFilterDto filter, int topIngredients) {
+        String classification = filter.getClassification() != null ? filter.getClassification().name() : null;
+        String ingredientName = Utils.normalizeIngredientName(filter.getIngredientName());
+
+        Map<RecipeClassification, Long> classifications = new EnumMap<>(RecipeClassification.class);
+        for (RecipeClassification value : RecipeClassification.values()) {
+            classifications.put(value, 0L);
+        }
+        recipeRepository.countByClassification(null, filter.getNumberOfServings(), filter.getInstructionSearch(),
+                        ingredientName, filter.isIncludeIngredient())
+                .stream()
+                .filter(row -> row[0] != null)
+                .forEach(row -> classifications.put((RecipeClassification) row[0], (Long) row[1]));
+
+        Map<Long, Long> servings = new LinkedHashMap<>();
+        recipeRepository.countByNumberOfServings(classification, 0, filter.getInstructionSearch(),
+                        ingredientName, filter.isIncludeIngredient())
+                .forEach(row -> servings.put((Long) row[0], (Long) row[1]));
+
+        Map<String, Long> ingredients = new LinkedHashMap<>();
+        recipeRepository.countByIngredient(classification, filter.getNumberOfServings(), filter.getInstructionSearch(),
+                        ingredientName, filter.isIncludeIngredient(), PageRequest.of(0, topIngredients))
+                .forEach(row -> ingredients.put((String) row[0], (Long) row[1]));
+
+        return RecipeFacetsDto.builder()
+                .total(recipeRepository.countFilter(classification, filter.getNumberOfServings(),
+                        filter.getInstructionSearch(), ingredientName, filter.isIncludeIngredient()))
+                .classifications(classifications)
+                .servings(servings)
+                .ingredients(ingredients)
+                .build();
+    }
+
+    private RecipeFilterDto matchIngredient(RecipeFilterDto filter) {
+        return filter.matchIngredient(ingredientNameSearch::closest);
+    }
+
+    /**
+     * Ranked full-text search when it applies, otherwise the in-memory index. Empty means neither can answer the
+     * filter and the database query has to.
+     */
+    private Optional<SearchHits> search(RecipeFilterDto filter, int page, int size) {
+        Optional<SearchHits> ranked = recipeFullTextSearch.search(filter, page, size);
+        if (ranked.isPresent()) {
+            return ranked;
+        }
+        Optional<SearchHits> hits = recipeSearchIndex.search(filter, page, size);
+        recipeMetrics.recordSearchIndex(hits.isPresent());
+        return hits;
+    }
+
+    private List<Recipe> findAllInOrder(List<String> recipeIds) {
+        Map<String, Recipe> recipesById = recipeRepository.findAllById(recipeIds).stream()
+                .collect(Collectors.toMap(Recipe::getId, Function.identity()));
+        return recipeIds.stream()
+                .map(recipesById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    private List<RecipeSummaryDto> findSummariesInOrder(List<String> recipeIds) {
+        Map<String, RecipeSummaryDto> summariesById = recipeRepository.findSummariesByIdIn(recipeIds).stream()
+                .collect(Collectors.toMap(RecipeSummaryDto::getId, Function.identity()));
+        return recipeIds.stream()
+                .map(summariesById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    private static List<RecipeDto> toRecipeDtos(List<Recipe> recipes) {
+        return recipes.stream().map(DtoMapper.MAPPER::toRecipeDto).collect(Collectors.toList());
+    }
+
+    private static CursorPageDto<RecipeDto> toCursorPage(List<Recipe> recipes, boolean hasNext, int size, Long total) {
+        return CursorPageDto.<RecipeDto>builder()
+                .content(toRecipeDtos(recipes))
+                .size(size)
+                .hasNext(hasNext)
+                .nextCursor(hasNext && !recipes.isEmpty() ? RecipeCursor.of(recipes.get(recipes.size() - 1)).encode() : null)
+                .totalElements(total)
+                .build();
     }
 
     @Override
+    @Transactional
     public ApiResponse<RecipeDto> createRecipe(RecipeDto recipeDto) {
 
-        Recipe savedRecipe = recipeRepository.save(DtoMapper.MAPPER.toRecipeEntity(recipeDto));
+        Recipe savedRecipe = recipeMetrics.time("create",
+                () -> recipeRepository.save(DtoMapper.MAPPER.toRecipeEntity(recipeDto)));
+        recipeRepository.flush();
+        recipeChangeService.record(savedRecipe.getId(), ChangeType.CREATED);
         return Utils.createResponse(DtoMapper.MAPPER.toRecipeDto(savedRecipe), true, ResponseCode.SUCCESS);
     }
 
     @Override
+    @Transactional
     public ApiResponse<RecipeDto> updateRecipe(RecipeDto recipeDto) {
-        return recipeRepository.findById(recipeDto.getId()).map(recipe -> {
-            final Recipe savedRecipe = recipeRepository.save(DtoMapper.MAPPER.toRecipeEntity(recipeDto));
-            return Utils.createResponse(DtoMapper.MAPPER.toRecipeDto(savedRecipe),
-                    true, ResponseCode.SUCCESS);
-        }).orElseThrow(() -> new RecipeNotFoundException("Recipe with id " + recipeDto.getId() + " was not found "));
+        return recipeMetrics.time("update", () -> update(recipeDto));
+    }
+
+    private ApiResponse<RecipeDto> update(RecipeDto recipeDto) {
+        String id = recipeDto.getId();
+        long expectedVersion = recipeDto.getVersion() != null
+                ? recipeDto.getVersion()
+                : recipeRepository.findCurrentVersion(id)
+                .orElseThrow(() -> notFound("update", id));
+        int updated = recipeRepository.updateIfVersion(id, expectedVersion, recipeDto.getName(),
+                recipeDto.getNumberOfServings(), recipeDto.getClassification(), recipeDto.getInstructions(),
+                OffsetDateTime.now());
+        if (updated == 0) {
+            if (!recipeRepository.existsById(id)) {
+                throw notFound("update", id);
+            }
+            throw new RecipeConflictException("Recipe with id " + id + " is no longer at version " + expectedVersion);
+        }
+
+        ingredientRepository.deleteByRecipeId(id);
+        Recipe recipe = recipeRepository.getReferenceById(id);
+        List<Ingredient> ingredients = recipeDto.getIngredientList().stream()
+                .map(DtoMapper.MAPPER::toIngredientEntity)
+                .collect(Collectors.toList());
+        for (int position = 0; position < ingredients.size(); position++) {
+            ingredients.get(position).setRecipe(recipe);
+            ingredients.get(position).setPosition(position);
+        }
+        ingredientRepository.saveAll(ingredients);
+        eventPublisher.publishEvent(new RecipeChangedEvent(id));
+        recipeRepository.flush();
+        recipeChangeService.record(id, ChangeType.UPDATED);
+
+        RecipeDto updatedRecipe = RecipeDto.builder()
+                .id(id)
+                .name(recipeDto.getName())
+                .numberOfServings(recipeDto.getNumberOfServings())
+                .classification(recipeDto.getClassification())
+                .ingredientList(recipeDto.getIngredientList())
+                .instructions(recipeDto.getInstructions())
+                .version(expectedVersion + 1)
+                .build();
+        return Utils.createResponse(updatedRecipe, true, ResponseCode.SUCCESS);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.RECIPES, key = "#id", sync = true)
     public ApiResponse<RecipeDto> getRecipe(String id) {
-        return recipeRepository.findById(id)
+        return recipeMetrics.time("get", () -> recipeRepository.findById(id))
                 .map(DtoMapper.MAPPER::toRecipeDto)
                 .map(recipeDto -> Utils.createResponse(recipeDto, true, ResponseCode.SUCCESS))
-                .orElseThrow(() -> new RecipeNotFoundException("Recipe with id " + id + " was not found "));
+                .orElseThrow(() -> notFound("get", id));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ApiResponse<RecipeBatchDto> getRecipes(List<String> ids) {
+        List<String> uniqueIds = ids.stream()
+                .filter(StringUtils::hasText)
+                .distinct()
+                .collect(Collectors.toList());
+        Map<String, RecipeDto> recipesById = recipeMetrics.time("batch-get", () -> findAllById(uniqueIds));
+
+        List<RecipeDto> recipes = new ArrayList<>(recipesById.size());
+        List<String> missingIds = new ArrayList<>();
+        for (String id : uniqueIds) {
+            RecipeDto recipeDto = recipesById.get(id);
+            if (recipeDto != null) {
+                recipes.add(recipeDto);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        recipeMetrics.recordResults("batch-get", recipes.size());
+        RecipeBatchDto batch = RecipeBatchDto.builder()
+                .recipes(recipes)
+                .missingIds(missingIds)
+                .build();
+        return Utils.createResponse(batch, true, ResponseCode.SUCCESS);
+    }
+
+    private Map<String, RecipeDto> findAllById(List<String> ids) {
+        Map<String, RecipeDto> recipesById = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += BATCH_GET_CHUNK_SIZE) {
+            List<String> chunk = ids.subList(from, Math.min(from + BATCH_GET_CHUNK_SIZE, ids.size()));
+            recipeRepository.findAllById(chunk)
+                    .forEach(recipe -> recipesById.put(recipe.getId(), DtoMapper.MAPPER.toRecipeDto(recipe)));
+        }
+        return recipesById;
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public ApiResponse<ShoppingListDto> getShoppingList(List<ShoppingListItemDto> items) {
+        Map<String, Long> servingsById = new LinkedHashMap<>();
+        items.forEach(item -> servingsById.merge(item.getRecipeId(), item.getServings(), Long::sum));
+        Map<String, List<Object[]>> rowsById = recipeMetrics.time("shopping-list",
+                () -> findIngredientQuantities(new ArrayList<>(servingsById.keySet())));
+
+        Map<String, Map<UnitOfMeasure.Dimension, IngredientTotal>> totals = new LinkedHashMap<>();
+        List<String> missingIds = new ArrayList<>();
+        servingsById.forEach((id, servings) -> {
+            List<Object[]> rows = rowsById.get(id);
+            if (rows == null) {
+                missingIds.add(id);
+                return;
+            }
+            for (Object[] row : rows) {
+                if (row[2] == null) {
+                    continue;
+                }
+                long recipeServings = (Long) row[1];
+                double scale = recipeServings > 0 ? (double) servings / recipeServings : servings;
+                String name = (String) row[2];
+                String normalizedName = row[3] != null ? (String) row[3] : Utils.normalizeIngredientName(name);
+                UnitOfMeasure unit = (UnitOfMeasure) row[5];
+                totals.computeIfAbsent(normalizedName, key -> new TreeMap<>(Comparator.nullsLast(Comparator.naturalOrder())))
+                        .computeIfAbsent(unit == null ? null : unit.getDimension(),
+                                dimension -> new IngredientTotal(name, dimension))
+                        .add((Double) row[4] * scale, unit);
+            }
+        });
+
+        List<IngredientDto> ingredients = new ArrayList<>(totals.size());
+        totals.values().forEach(byDimension -> byDimension.values()
+                .forEach(total -> ingredients.add(total.toIngredientDto())));
+        recipeMetrics.recordResults("shopping-list", ingredients.size());
+        ShoppingListDto shoppingList = ShoppingListDto.builder()
+                .ingredients(ingredients)
+                .missingIds(missingIds)
+                .build();
+        return Utils.createResponse(shoppingList, true, ResponseCode.SUCCESS);
+    }
+
+    private Map<String, List<Object[]>> findIngredientQuantities(List<String> ids) {
+        Map<String, List<Object[]>> rowsById = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += BATCH_GET_CHUNK_SIZE) {
+            List<String> chunk = ids.subList(from, Math.min(from + BATCH_GET_CHUNK_SIZE, ids.size()));
+            recipeRepository.findIngredientQuantities(chunk)
+                    .forEach(row -> rowsById.computeIfAbsent((String) row[0], id -> new ArrayList<>()).add(row));
+        }
+        return rowsById;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ApiResponse<List<String>> suggestIngredients(String prefix, int limit) {
+        return Utils.createResponse(ingredientNameSearch.suggest(prefix, limit), true, ResponseCode.SUCCESS);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public RecipeVersion getRecipeVersion(String id) {
+        RecipeVersion version = recipeRepository.findVersionById(id);
+        if (!version.exists()) {
+            throw notFound("get", id);
+        }
+        return version;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public RecipeVersion getRecipesVersion() {
+        return new RecipeVersion(recipeRepository.findLastUpdated(), recipeChangeService.getLatestSequence());
+    }
+
+    @Override
+    @Transactional
     public ApiResponse<RecipeDto> deleteRecipe(String id) {
-        return recipeRepository.findById(id).map(recipe -> {
+        return recipeMetrics.time("delete", () -> recipeRepository.findById(id).map(recipe -> {
             recipeRepository.delete(recipe);
+            recipeRepository.flush();
+            recipeChangeService.record(id, ChangeType.DELETED);
             return Utils.createResponse(DtoMapper.MAPPER.toRecipeDto(recipe), true, ResponseCode.SUCCESS);
-        }).orElseThrow(() -> new RecipeNotFoundException("Recipe with id " + id + " was not found "));
+        })).orElseThrow(() -> notFound("delete", id));
+    }
+
+    private RecipeNotFoundException notFound(String operation, String id) {
+        recipeMetrics.recordNotFound(operation);
+        return new RecipeNotFoundException("Recipe with id " + id + " was not found ");
     }
 }
@@ -0,0 +1,65 @@
+package com.nhira.abnrecipeapp.utils;
+
+import com.nhira.abnrecipeapp.dto.IngredientDto;
+import com.nhira.abnrecipeapp.utils.enums.UnitOfMeasure;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Running total of one ingredient in one dimension, kept in the dimension's base unit so amounts in different units
+ * add up. The total is reported in the largest unit that keeps it at least one, in spoons and cups only while
+ * every added amount was measured that way. Amounts stored without a unit have no dimension; they are summed as they
+ * are and reported without a unit.
+ */
+public class IngredientTotal {
+
+    private static final int SCALE = 2;
+
+    private final String name;
+    private final UnitOfMeasure.Dimension dimension;
+    private double baseQuantity;
+    private boolean kitchenMeasure = true;
+
+    public IngredientTotal(String name, UnitOfMeasure.Dimension dimension) {
+        this.name = name;
+        this.dimension = dimension;
+    }
+
+    /**
+     * Returns the ingredient with its quantity multiplied by {@code factor}, in the largest fitting unit, e.g.
+     * 750 ml times two as 1.5 litres.
+     */
+    public static IngredientDto scale(IngredientDto ingredient, double factor) {
+        UnitOfMeasure unit = ingredient.getUnitOfMeasure();
+        if (unit == null) {
+            return new IngredientDto(ingredient.getName(), ingredient.getQuantity() * factor, null);
+        }
+        return new IngredientTotal(ingredient.getName(), unit.getDimension())
+                .add(ingredient.getQuantity() * factor, unit)
+                .toIngredientDto();
+    }
+
+    public IngredientTotal add(double quantity, UnitOfMeasure unit) {
+        if (unit == null) {
+            baseQuantity += quantity;
+            return this;
+        }
+        baseQuantity += unit.toBaseUnits(quantity);
+        kitchenMeasure &= unit.isKitchenMeasure();
+        return this;
+    }
+
+    public IngredientDto toIngredientDto() {
+        UnitOfMeasure unit = dimension == null ? null : UnitOfMeasure.largestFor(dimension, kitchenMeasure, baseQuantity);
+        double baseUnits = unit == null ? 1 : unit.getBaseUnits();
+        double quantity = BigDecimal.valueOf(baseQuantity / baseUnits)
+                .setScale(SCALE, RoundingMode.HALF_UP)
+                .doubleValue();
+        return IngredientDto.builder()
+                .name(name)
+                .quantity(quantity)
+                .unitOfMeasure(unit)
+                .build();
+    }
+}
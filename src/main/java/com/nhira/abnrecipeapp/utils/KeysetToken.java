@@ -0,0 +1,45 @@
+package com.nhira.abnrecipeapp.utils;
+
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position handed to clients as an opaque URL-safe token: a timestamp and the id that breaks ties between
+ * equal timestamps. {@link RecipeCursor} and {@link RecipeSyncToken} give it their meaning and share this encoding.
+ */
+@Value
+public class KeysetToken {
+    private static final String SEPARATOR = "|";
+
+    OffsetDateTime timestamp;
+    String id;
+
+    public String encode() {
+        String raw = timestamp.toInstant() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param kind what the token is called in the error message, e.g. {@code cursor}
+     * @throws IllegalArgumentException when the token was not produced by {@link #encode()}
+     */
+    public static KeysetToken decode(String token, String kind) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid " + kind + " " + token);
+            }
+            return new KeysetToken(Instant.parse(raw.substring(0, separator)).atOffset(ZoneOffset.UTC),
+                    raw.substring(separator + 1));
+        } catch (DateTimeParseException exception) {
+            throw new IllegalArgumentException("Invalid " + kind + " " + token, exception);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.nhira.abnrecipeapp.utils;
+
+import com.nhira.abnrecipeapp.model.Recipe;
+import lombok.Value;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Position in the newest-first recipe listing, handed to clients as an opaque {@link KeysetToken} made of the
+ * {@code dateCreated} and {@code id} of the last recipe they received.
+ */
+@Value
+public class RecipeCursor {
+    OffsetDateTime dateCreated;
+    String id;
+
+    public static RecipeCursor of(Recipe recipe) {
+        return new RecipeCursor(recipe.getDateCreated(), recipe.getId());
+    }
+
+    public String encode() {
+        return new KeysetToken(dateCreated, id).encode();
+    }
+
+    /**
+     * @return the decoded cursor, or {@code null} for a blank token meaning "start from the newest recipe"
+     * @throws IllegalArgumentException when the token was not produced by {@link #encode()}
+     */
+    public static RecipeCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        KeysetToken position = KeysetToken.decode(token, "cursor");
+        return new RecipeCursor(position.getTimestamp(), position.getId());
+    }
+}
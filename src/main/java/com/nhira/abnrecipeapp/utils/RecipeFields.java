@@ -0,0 +1,91 @@
+package com.nhira.abnrecipeapp.utils;
+
+import com.nhira.abnrecipeapp.dto.RecipeSummaryDto;
+import com.nhira.abnrecipeapp.mapper.DtoMapper;
+import com.nhira.abnrecipeapp.model.Recipe;
+import lombok.Value;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Sparse fieldset requested through the {@code fields} parameter of the listing endpoints. The scalar summary
+ * fields are served from a {@link RecipeSummaryDto} projection; {@code instructions} and {@code ingredientList}
+ * need the entity, and ingredients are only loaded when asked for.
+ */
+@Value
+public class RecipeFields {
+    public static final String ID = "id";
+    public static final String NAME = "name";
+    public static final String NUMBER_OF_SERVINGS = "numberOfServings";
+    public static final String CLASSIFICATION = "classification";
+    public static final String INGREDIENT_LIST = "ingredientList";
+    public static final String INSTRUCTIONS = "instructions";
+
+    private static final List<String> ALL_FIELDS =
+            List.of(ID, NAME, NUMBER_OF_SERVINGS, CLASSIFICATION, INGREDIENT_LIST, INSTRUCTIONS);
+    private static final Set<String> SUMMARY_FIELDS = Set.of(ID, NAME, NUMBER_OF_SERVINGS, CLASSIFICATION);
+
+    Set<String> names;
+
+    /**
+     * @param fields comma separated field names, e.g. {@code id,name,classification}
+     * @throws IllegalArgumentException when no field or an unknown field is requested
+     */
+    public static RecipeFields parse(String fields) {
+        Set<String> requested = Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(field -> !field.isEmpty())
+                .collect(Collectors.toSet());
+        if (requested.isEmpty()) {
+            throw new IllegalArgumentException("At least one field must be requested, expected any of " + ALL_FIELDS);
+        }
+        Set<String> unknown = requested.stream()
+                .filter(field -> !ALL_FIELDS.contains(field))
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        if (!unknown.isEmpty()) {
+            throw new IllegalArgumentException("Unknown fields " + unknown + ", expected any of " + ALL_FIELDS);
+        }
+        return new RecipeFields(ALL_FIELDS.stream()
+                .filter(requested::contains)
+                .collect(Collectors.toCollection(LinkedHashSet::new)));
+    }
+
+    public boolean requiresEntity() {
+        return !SUMMARY_FIELDS.containsAll(names);
+    }
+
+    public Map<String, Object> project(RecipeSummaryDto recipe) {
+        Map<String, Object> projection = new LinkedHashMap<>();
+        put(projection, ID, recipe::getId);
+        put(projection, NAME, recipe::getName);
+        put(projection, NUMBER_OF_SERVINGS, recipe::getNumberOfServings);
+        put(projection, CLASSIFICATION, recipe::getClassification);
+        return projection;
+    }
+
+    public Map<String, Object> project(Recipe recipe) {
+        Map<String, Object> projection = new LinkedHashMap<>();
+        put(projection, ID, recipe::getId);
+        put(projection, NAME, recipe::getName);
+        put(projection, NUMBER_OF_SERVINGS, recipe::getNumberOfServings);
+        put(projection, CLASSIFICATION, recipe::getClassification);
+        put(projection, INGREDIENT_LIST, () -> recipe.getIngredients().stream()
+                .map(DtoMapper.MAPPER::toIngredientDto)
+                .collect(Collectors.toList()));
+        put(projection, INSTRUCTIONS, recipe::getInstructions);
+        return projection;
+    }
+
+    private void put(Map<String, Object> projection, String field, Supplier<Object> value) {
+        if (names.contains(field)) {
+            projection.put(field, value.get());
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.nhira.abnrecipeapp.utils;
+
+import lombok.Value;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Position in the delta sync, handed to clients as an opaque {@link KeysetToken} made of the time and recipe id of
+ * the last change they received. Recipes are ordered by {@code lastUpdated} and deletions by the time they were
+ * recorded, both with the recipe id breaking ties.
+ */
+@Value
+public class RecipeSyncToken {
+    OffsetDateTime timestamp;
+    String id;
+
+    /**
+     * Returns the position just before every change made at or after {@code since}.
+     */
+    public static RecipeSyncToken since(OffsetDateTime since) {
+        return new RecipeSyncToken(since, "");
+    }
+
+    public String encode() {
+        return new KeysetToken(timestamp, id).encode();
+    }
+
+    /**
+     * @throws IllegalArgumentException when the token was not produced by {@link #encode()}
+     */
+    public static RecipeSyncToken decode(String token) {
+        KeysetToken position = KeysetToken.decode(token, "continuation token");
+        return new RecipeSyncToken(position.getTimestamp(), position.getId());
+    }
+
+    /**
+     * Orders positions by time, then by recipe id, as the sync queries do.
+     */
+    public boolean isBefore(OffsetDateTime otherTimestamp, String otherId) {
+        int byTime = timestamp.toInstant().compareTo(otherTimestamp.toInstant());
+        return byTime < 0 || (byTime == 0 && id.compareTo(otherId) < 0);
+    }
+}
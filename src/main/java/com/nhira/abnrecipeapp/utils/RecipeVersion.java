@@ -0,0 +1,64 @@
+package com.nhira.abnrecipeapp.utils;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Validator for a recipe or a listing of recipes. A single recipe's carries the optimistic-lock {@code version} of
+ * the recipe served, which becomes its ETag so clients can send it back in {@code If-Match}. Listings share one
+ * read from the database every instance writes to: the newest {@code lastUpdated} and, as the count, the latest
+ * recipe change sequence number, which also moves on deletes and tells apart changes within the same instant.
+ */
+@Value
+@AllArgsConstructor
+public class RecipeVersion {
+    OffsetDateTime lastUpdated;
+    long count;
+    Long version;
+
+    public RecipeVersion(OffsetDateTime lastUpdated, long count) {
+        this(lastUpdated, count, null);
+    }
+
+    public boolean exists() {
+        return count > 0;
+    }
+
+    public String eTag() {
+        if (version != null) {
+            return eTagOf(version);
+        }
+        long epochMicros = lastUpdated == null
+                ? 0
+                : lastUpdated.toEpochSecond() * 1_000_000 + lastUpdated.getNano() / 1_000;
+        return "\"" + Long.toString(count, 36) + "-" + Long.toString(epochMicros, 36) + "\"";
+    }
+
+    public static String eTagOf(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * @return the recipe version carried by an ETag from {@link #eTagOf(long)}, or {@code null} for any other value
+     */
+    public static Long versionOf(String eTag) {
+        String value = eTag.trim();
+        if (value.length() < 3 || !value.startsWith("\"") || !value.endsWith("\"")) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value.substring(1, value.length() - 1));
+        } catch (NumberFormatException exception) {
+            return null;
+        }
+    }
+
+    /**
+     * @return the last modification time in epoch milliseconds, or -1 when there is nothing to list
+     */
+    public long lastModified() {
+        return lastUpdated == null ? -1 : lastUpdated.toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,56 @@
+package com.nhira.abnrecipeapp.utils;
+
+import com.nhira.abnrecipeapp.dto.IngredientDto;
+import com.nhira.abnrecipeapp.dto.RecipeDto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rescales recipes to another number of servings. Recipes are copied rather than changed, since the ones handed
+ * out by the service may be shared through the cache.
+ */
+public final class ServingsScaler {
+
+    private ServingsScaler() {
+    }
+
+    /**
+     * Returns the recipe for {@code servings} people with every ingredient quantity rescaled from its
+     * {@code numberOfServings} and given in the largest fitting unit, or the recipe itself when {@code servings}
+     * is {@code null}.
+     */
+    public static RecipeDto scale(RecipeDto recipe, Long servings) {
+        if (recipe == null || servings == null) {
+            return recipe;
+        }
+        double factor = recipe.getNumberOfServings() > 0
+                ? (double) servings / recipe.getNumberOfServings()
+                : servings;
+        List<IngredientDto> ingredients = null;
+        if (recipe.getIngredientList() != null) {
+            ingredients = new ArrayList<>(recipe.getIngredientList().size());
+            for (IngredientDto ingredient : recipe.getIngredientList()) {
+                ingredients.add(IngredientTotal.scale(ingredient, factor));
+            }
+        }
+        return RecipeDto.builder()
+                .id(recipe.getId())
+                .name(recipe.getName())
+                .numberOfServings(servings)
+                .classification(recipe.getClassification())
+                .ingredientList(ingredients)
+                .instructions(recipe.getInstructions())
+                .version(recipe.getVersion())
+                .build();
+    }
+
+    public static List<RecipeDto> scale(List<RecipeDto> recipes, Long servings) {
+        if (recipes == null || servings == null) {
+            return recipes;
+        }
+        List<RecipeDto> scaled = new ArrayList<>(recipes.size());
+        recipes.forEach(recipe -> scaled.add(scale(recipe, servings)));
+        return scaled;
+    }
+}
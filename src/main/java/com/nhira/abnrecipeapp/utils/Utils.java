@@ -3,6 +3,8 @@ package com.nhira.abnrecipeapp.utils;
 import com.nhira.abnrecipeapp.utils.enums.ResponseCode;
 import lombok.Generated;
 
+import java.util.Locale;
+
 @Generated
 public interface Utils {
     static <T> ApiResponse<T> createResponse(
@@ -24,4 +26,8 @@ public interface Utils {
                 .narrative(responseCode.getDescription())
                 .build();
     }
+
+    static String normalizeIngredientName(String name) {
+        return name == null ? null : name.trim().toLowerCase(Locale.ROOT);
+    }
 }
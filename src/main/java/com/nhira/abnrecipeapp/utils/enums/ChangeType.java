@@ -0,0 +1,7 @@
+package com.nhira.abnrecipeapp.utils.enums;
+
+public enum ChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
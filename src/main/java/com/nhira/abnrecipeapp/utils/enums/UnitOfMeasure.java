@@ -1,12 +1,60 @@
 package com.nhira.abnrecipeapp.utils.enums;
 
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Units ingredients are measured in. Every unit is a multiple of its dimension's base unit (gram, millilitre or
+ * unit), which is what quantities are added up in. Spoons and cups are metric kitchen measures: 5 ml, 15 ml and
+ * 250 ml.
+ */
+@Getter
+@AllArgsConstructor
 public enum UnitOfMeasure {
-    TEASPOON,
-    CUP,
-    TABLESPOON,
-    LITRE,
-    MILLILITRE,
-    UNIT,
-    KILOGRAM,
-    GRAM
+    TEASPOON(Dimension.VOLUME, 5, true),
+    CUP(Dimension.VOLUME, 250, true),
+    TABLESPOON(Dimension.VOLUME, 15, true),
+    LITRE(Dimension.VOLUME, 1000, false),
+    MILLILITRE(Dimension.VOLUME, 1, false),
+    UNIT(Dimension.COUNT, 1, false),
+    KILOGRAM(Dimension.MASS, 1000, false),
+    GRAM(Dimension.MASS, 1, false);
+
+    private static final double ROUNDING_ERROR = 1e-9;
+
+    private final Dimension dimension;
+    private final double baseUnits;
+    private final boolean kitchenMeasure;
+
+    public double toBaseUnits(double quantity) {
+        return quantity * baseUnits;
+    }
+
+    /**
+     * Returns the largest unit of the same dimension and kind (kitchen measure or not) that expresses
+     * {@code baseQuantity} as at least one, or the smallest such unit for quantities below that.
+     */
+    public static UnitOfMeasure largestFor(Dimension dimension, boolean kitchenMeasure, double baseQuantity) {
+        UnitOfMeasure largest = null;
+        UnitOfMeasure smallest = null;
+        for (UnitOfMeasure unit : values()) {
+            if (unit.dimension != dimension || unit.kitchenMeasure != kitchenMeasure) {
+                continue;
+            }
+            if (smallest == null || unit.baseUnits < smallest.baseUnits) {
+                smallest = unit;
+            }
+            if (unit.baseUnits <= baseQuantity + ROUNDING_ERROR
+                    && (largest == null || unit.baseUnits > largest.baseUnits)) {
+                largest = unit;
+            }
+        }
+        return largest != null ? largest : smallest;
+    }
+
+    public enum Dimension {
+        MASS,
+        VOLUME,
+        COUNT
+    }
 }
@@ -0,0 +1,30 @@
+CREATE TABLE IF NOT EXISTS recipe
+(
+    id                 VARCHAR(255) NOT NULL,
+    date_created       TIMESTAMP WITH TIME ZONE,
+    last_updated       TIMESTAMP WITH TIME ZONE,
+    version            BIGINT,
+    classification     VARCHAR(255),
+    instructions       VARCHAR(10000),
+    name               VARCHAR(255),
+    number_of_servings BIGINT       NOT NULL,
+    CONSTRAINT pk_recipe PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS ingredient
+(
+    id              VARCHAR(255)     NOT NULL,
+    date_created    TIMESTAMP WITH TIME ZONE,
+    last_updated    TIMESTAMP WITH TIME ZONE,
+    version         BIGINT,
+    name            VARCHAR(255),
+    normalized_name VARCHAR(255),
+    quantity        DOUBLE PRECISION NOT NULL,
+    unit_of_measure VARCHAR(255),
+    recipe_id       VARCHAR(255)     NOT NULL,
+    CONSTRAINT pk_ingredient PRIMARY KEY (id),
+    CONSTRAINT fk_ingredient_recipe FOREIGN KEY (recipe_id) REFERENCES recipe (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_ingredient_normalized_name_recipe ON ingredient (normalized_name, recipe_id);
+CREATE INDEX IF NOT EXISTS idx_ingredient_recipe ON ingredient (recipe_id);
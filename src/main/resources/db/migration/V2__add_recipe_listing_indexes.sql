@@ -0,0 +1,7 @@
+-- find-all and the cursor listings: ORDER BY date_created DESC, id DESC
+CREATE INDEX IF NOT EXISTS idx_recipe_date_created ON recipe (date_created, id);
+
+-- find: numberOfServings defaults to 1, so it is nearly always set, with or without a classification
+CREATE INDEX IF NOT EXISTS idx_recipe_servings_date_created ON recipe (number_of_servings, date_created, id);
+CREATE INDEX IF NOT EXISTS idx_recipe_classification_servings_date_created
+    ON recipe (classification, number_of_servings, date_created, id);
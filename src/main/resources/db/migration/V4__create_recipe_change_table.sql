@@ -0,0 +1,10 @@
+-- Outbox of recipe writes: one row per create, update and delete, inserted in the writing transaction and read
+-- back in id order as the change feed. recipe_id has no foreign key so rows outlive deleted recipes.
+CREATE TABLE IF NOT EXISTS recipe_change
+(
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    recipe_id   VARCHAR(255)             NOT NULL,
+    change_type VARCHAR(255)             NOT NULL,
+    changed_at  TIMESTAMP WITH TIME ZONE NOT NULL,
+    CONSTRAINT pk_recipe_change PRIMARY KEY (id)
+);
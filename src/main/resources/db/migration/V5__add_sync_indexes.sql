@@ -0,0 +1,5 @@
+-- sync: recipes modified since a watermark, ORDER BY last_updated, id
+CREATE INDEX IF NOT EXISTS idx_recipe_last_updated ON recipe (last_updated, id);
+
+-- sync: deletions recorded since a watermark, ORDER BY changed_at, recipe_id
+CREATE INDEX IF NOT EXISTS idx_recipe_change_type_changed_at ON recipe_change (change_type, changed_at, recipe_id);
@@ -0,0 +1,5 @@
+-- Ingredients keep the order they were given in. Rows written before this column existed have no recorded order,
+-- so number them by id within their recipe, which at least keeps every later read consistent.
+ALTER TABLE ingredient ADD COLUMN position INTEGER;
+UPDATE ingredient SET position = (SELECT COUNT(*) FROM ingredient o WHERE o.recipe_id = ingredient.recipe_id AND o.id < ingredient.id);
+ALTER TABLE ingredient ALTER COLUMN position SET NOT NULL;
@@ -0,0 +1,8 @@
+-- Recipes created by the old ddl-auto schema have no version column, and V1 left it nullable. A NULL version
+-- never matches the version-checked UPDATE, so start every existing row at 0 and require one from now on.
+ALTER TABLE recipe ADD COLUMN IF NOT EXISTS version BIGINT;
+UPDATE recipe SET version = 0 WHERE version IS NULL;
+ALTER TABLE recipe ALTER COLUMN version SET NOT NULL;
+
+UPDATE ingredient SET version = 0 WHERE version IS NULL;
+ALTER TABLE ingredient ALTER COLUMN version SET NOT NULL;
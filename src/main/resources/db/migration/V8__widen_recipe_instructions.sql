@@ -0,0 +1,3 @@
+-- Databases baselined from the old ddl-auto schema kept Hibernate's default instructions VARCHAR(255), because V1
+-- skips tables that already exist and ddl-auto validate does not compare lengths. Widen it to what the entity maps.
+ALTER TABLE recipe ALTER COLUMN instructions SET DATA TYPE VARCHAR(10000);
@@ -0,0 +1,276 @@
+package com.nhira.abnrecipeapp.integrationtests;
+
+import com.nhira.abnrecipeapp.cache.RecipeCacheInvalidator;
+import com.nhira.abnrecipeapp.dto.RecipeChangeDto;
+import com.nhira.abnrecipeapp.dto.RecipeDto;
+import com.nhira.abnrecipeapp.mapper.DtoMapper;
+import com.nhira.abnrecipeapp.model.Recipe;
+import com.nhira.abnrecipeapp.repository.RecipeRepository;
+import com.nhira.abnrecipeapp.service.api.RecipeChangeService;
+import com.nhira.abnrecipeapp.utils.enums.ChangeType;
+import com.nhira.abnrecipeapp.utils.enums.ResponseCode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+import java.util.UUID;
+
+import static com.nhira.abnrecipeapp.utils.RecipeTestDataUtil.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest
+@ActiveProfiles("reactive")
+@AutoConfigureWebTestClient
+class ReactiveRecipeControllerIT {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @Autowired
+    private RecipeChangeService recipeChangeService;
+
+    @SpyBean
+    private RecipeCacheInvalidator recipeCacheInvalidator;
+
+    @AfterEach
+    void tearDown() {
+        recipeRepository.deleteAll();
+    }
+
+    @Test
+    void givenValidRecipeDto_whenCreateRecipe_shouldReturnSuccessfulCreationResponse() {
+        RecipeDto recipeDto = getNonVeganRecipeDto();
+
+        webTestClient.post().uri("/recipes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(recipeDto)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.responseCode").isEqualTo(ResponseCode.SUCCESS.name())
+                .jsonPath("$.body.name").isEqualTo(recipeDto.getName())
+                .jsonPath("$.body.instructions").isEqualTo(recipeDto.getInstructions())
+                .jsonPath("$.body.numberOfServings").isEqualTo((int) recipeDto.getNumberOfServings());
+
+        assertThat(recipeRepository.findById(recipeDto.getId())).isPresent();
+    }
+
+    @Test
+    void givenIngredientWithoutUnit_whenCreateAndGetRecipe_shouldReturnItWithoutUnit() {
+        RecipeDto recipeDto = getNonVeganRecipeDto();
+        recipeDto.getIngredientList().get(0).setUnitOfMeasure(null);
+
+        webTestClient.post().uri("/recipes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(recipeDto)
+                .exchange()
+                .expectStatus().isCreated();
+
+        webTestClient.get().uri("/recipes/{id}", recipeDto.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.body.ingredientList[0].name").isEqualTo("egg")
+                .jsonPath("$.body.ingredientList[0].unitOfMeasure").doesNotExist();
+    }
+
+    @Test
+    void givenInvalidRecipeDto_whenCreateRecipe_shouldReturnBadRequestResponse() {
+        webTestClient.post().uri("/recipes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new RecipeDto())
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void whenGetAllRecipes_shouldStreamAllAvailableRecipes() {
+        recipeRepository.saveAll(List.of(
+                DtoMapper.MAPPER.toRecipeEntity(getVeganRecipeDto()),
+                DtoMapper.MAPPER.toRecipeEntity(getNonVeganRecipeDto())));
+
+        webTestClient.get().uri("/recipes/find-all")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(RecipeDto.class)
+                .hasSize(2);
+    }
+
+    @Test
+    void givenRecipeFilter_whenGetRecipes_shouldReturnRecipesThatMatchFilter() {
+        Recipe recipe = recipeRepository.save(DtoMapper.MAPPER.toRecipeEntity(getNonVeganRecipeDto()));
+        recipeRepository.save(DtoMapper.MAPPER.toRecipeEntity(getVeganRecipeDto()));
+
+        webTestClient.get().uri(uriBuilder -> uriBuilder.path("/recipes/find")
+                        .queryParam("ingredientName", "Egg")
+                        .queryParam("instructionSearch", "boil")
+                        .queryParam("numberOfServings", recipe.getNumberOfServings())
+                        .queryParam("classification", recipe.getClassification())
+                        .build())
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].id").isEqualTo(recipe.getId())
+                .jsonPath("$[0].ingredientList.length()").isEqualTo(recipe.getIngredients().size());
+    }
+
+    @Test
+    void givenExistingRecipeID_whenGetRecipe_shouldReturnSuccessfulResponseRecipeWithIDSpecified() {
+        Recipe recipe = recipeRepository.save(DtoMapper.MAPPER.toRecipeEntity(getVeganRecipeDto()));
+
+        webTestClient.get().uri("/recipes/{id}", recipe.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.responseCode").isEqualTo(ResponseCode.SUCCESS.name())
+                .jsonPath("$.body.name").isEqualTo(recipe.getName())
+                .jsonPath("$.body.instructions").isEqualTo(recipe.getInstructions())
+                .jsonPath("$.body.numberOfServings").isEqualTo((int) recipe.getNumberOfServings());
+    }
+
+    @Test
+    void givenNonExistentRecipeID_whenGetRecipe_shouldReturnNotFoundResponse() {
+        webTestClient.get().uri("/recipes/{id}", UUID.randomUUID().toString())
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void givenExistingRecipeID_whenDeleteRecipe_shouldReturnSuccessfulResponseRecipeDeleted() {
+        Recipe recipe = recipeRepository.save(DtoMapper.MAPPER.toRecipeEntity(getVeganRecipeDto()));
+
+        webTestClient.delete().uri("/recipes/{id}", recipe.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.responseCode").isEqualTo(ResponseCode.SUCCESS.name())
+                .jsonPath("$.body.name").isEqualTo(recipe.getName());
+
+        assertThat(recipeRepository.existsById(recipe.getId())).isFalse();
+    }
+
+    @Test
+    void givenNonExistentRecipeID_whenDeleteRecipe_shouldReturnNotFoundResponse() {
+        webTestClient.delete().uri("/recipes/{id}", UUID.randomUUID().toString())
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void givenRecipeDtoWithID_whenUpdateRecipe_shouldReturnSuccessAndUpdatedRecipe() {
+        Recipe recipe = recipeRepository.save(DtoMapper.MAPPER.toRecipeEntity(getVeganRecipeDto()));
+        RecipeDto updated = DtoMapper.MAPPER.toRecipeDto(recipe);
+        updated.setName("Updated recipe");
+
+        webTestClient.put().uri("/recipes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(updated)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.responseCode").isEqualTo(ResponseCode.SUCCESS.name())
+                .jsonPath("$.body.name").isEqualTo(updated.getName())
+                .jsonPath("$.body.version").isEqualTo(recipe.getVersion().intValue() + 1);
+
+        assertThat(recipeRepository.findById(recipe.getId())).get()
+                .extracting(Recipe::getName)
+                .isEqualTo(updated.getName());
+    }
+
+    @Test
+    void givenStaleVersion_whenUpdateRecipe_shouldReturnConflictResponse() {
+        Recipe recipe = recipeRepository.save(DtoMapper.MAPPER.toRecipeEntity(getVeganRecipeDto()));
+        RecipeDto stale = DtoMapper.MAPPER.toRecipeDto(recipe);
+        stale.setVersion(recipe.getVersion() + 1);
+
+        webTestClient.put().uri("/recipes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(stale)
+                .exchange()
+                .expectStatus().isEqualTo(409);
+    }
+
+    @Test
+    void givenInvalidRecipeDto_whenUpdateRecipe_shouldReturnBadRequestResponse() {
+        webTestClient.put().uri("/recipes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new RecipeDto())
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void givenRecipeDtoWithNonExistentID_whenUpdateRecipe_shouldReturnNotFoundResponse() {
+        webTestClient.put().uri("/recipes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(getNonVeganRecipeDto())
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void givenCreateUpdateAndDelete_whenGetChanges_shouldRecordThemInTheOutbox() {
+        long since = recipeChangeService.getLatestSequence();
+        RecipeDto recipeDto = getVeganRecipeDto();
+
+        webTestClient.post().uri("/recipes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(recipeDto)
+                .exchange()
+                .expectStatus().isCreated();
+        recipeDto.setName("Updated salad");
+        webTestClient.put().uri("/recipes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(recipeDto)
+                .exchange()
+                .expectStatus().isOk();
+        webTestClient.delete().uri("/recipes/{id}", recipeDto.getId())
+                .exchange()
+                .expectStatus().isOk();
+
+        List<RecipeChangeDto> changes = recipeChangeService.findChanges(since, 10);
+        assertThat(changes).extracting(RecipeChangeDto::getRecipeId).containsOnly(recipeDto.getId());
+        assertThat(changes).extracting(RecipeChangeDto::getChangeType)
+                .containsExactly(ChangeType.CREATED, ChangeType.UPDATED, ChangeType.DELETED);
+    }
+
+    @Test
+    void givenCreateUpdateAndDelete_whenWritten_shouldPublishRecipeChanges() {
+        RecipeDto recipeDto = getVeganRecipeDto();
+
+        webTestClient.post().uri("/recipes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(recipeDto)
+                .exchange()
+                .expectStatus().isCreated();
+        recipeDto.setName("Updated salad");
+        webTestClient.put().uri("/recipes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(recipeDto)
+                .exchange()
+                .expectStatus().isOk();
+        webTestClient.delete().uri("/recipes/{id}", recipeDto.getId())
+                .exchange()
+                .expectStatus().isOk();
+
+        verify(recipeCacheInvalidator, times(3))
+                .onRecipeChanged(argThat(event -> event.getRecipeId().equals(recipeDto.getId())));
+    }
+}
@@ -0,0 +1,48 @@
+package com.nhira.abnrecipeapp.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.orm.jpa.JpaTransactionManager;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * With the {@code reactive} profile, R2DBC runs next to JPA, which keeps owning the schema, the search index and the
+ * import/export jobs. Spring Boot backs off its JDBC {@code DataSource} once an R2DBC {@code ConnectionFactory} is
+ * present, so it is declared here from the usual {@code spring.datasource} properties. That also gives two
+ * transaction managers: the JPA one is declared primary, so {@code @Transactional} keeps resolving to it, while the
+ * reactive service uses the R2DBC one through its {@code TransactionalOperator}.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveConfig {
+
+    @Bean
+    @Primary
+    @ConfigurationProperties("spring.datasource")
+    public DataSourceProperties dataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @Primary
+    public JpaTransactionManager transactionManager(EntityManagerFactory entityManagerFactory,
+                                                    ObjectProvider<TransactionManagerCustomizers> customizers) {
+        JpaTransactionManager transactionManager = new JpaTransactionManager(entityManagerFactory);
+        customizers.ifAvailable(transactionManagerCustomizers -> transactionManagerCustomizers.customize(transactionManager));
+        return transactionManager;
+    }
+}
@@ -0,0 +1,91 @@
+package com.nhira.abnrecipeapp.controller;
+
+import com.nhira.abnrecipeapp.dto.RecipeDto;
+import com.nhira.abnrecipeapp.dto.RecipeFilterDto;
+import com.nhira.abnrecipeapp.exceptions.RecipeConflictException;
+import com.nhira.abnrecipeapp.exceptions.RecipeNotFoundException;
+import com.nhira.abnrecipeapp.service.api.ReactiveRecipeService;
+import com.nhira.abnrecipeapp.utils.ApiResponse;
+import com.nhira.abnrecipeapp.utils.enums.RecipeClassification;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.validation.Valid;
+
+/**
+ * The {@code /recipes} API on WebFlux, active with the {@code reactive} profile. find-all and find stream their
+ * recipes as they are read, as a JSON array or, with {@code Accept: application/x-ndjson}, one recipe per line.
+ */
+@RestController
+@Profile("reactive")
+@RequiredArgsConstructor
+@RequestMapping("/recipes")
+public class ReactiveRecipeController {
+
+    private final ReactiveRecipeService recipeService;
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<ApiResponse<RecipeDto>> createRecipe(@Valid @RequestBody RecipeDto recipeDto) {
+        return recipeService.createRecipe(recipeDto)
+                .onErrorMap(DataIntegrityViolationException.class, exception -> new ResponseStatusException(
+                        HttpStatus.CONFLICT, "Recipe with id " + recipeDto.getId() + " already exists", exception));
+    }
+
+    @GetMapping(value = "/find-all", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<RecipeDto> getAllRecipes(
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "10") int size) {
+        return recipeService.getAllRecipes(page, size);
+    }
+
+    @GetMapping(value = "/find", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<RecipeDto> getRecipes(
+            @RequestParam(value = "ingredientName", defaultValue = "", required = false) String ingredientName,
+            @RequestParam(value = "instructionSearch", defaultValue = "", required = false) String instructionSearch,
+            @RequestParam(value = "includeIngredient", defaultValue = "true", required = false) boolean includeIngredient,
+            @RequestParam(value = "numberOfServings", defaultValue = "1", required = false) long numberOfServings,
+            @RequestParam(value = "classification", defaultValue = "") RecipeClassification classification,
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "10") int size) {
+        final RecipeFilterDto recipeFilter = RecipeFilterDto.builder()
+                .ingredientName(ingredientName)
+                .includeIngredient(includeIngredient)
+                .instructionSearch(instructionSearch)
+                .numberOfServings(numberOfServings)
+                .classification(classification)
+                .build();
+        return recipeService.filterRecipes(recipeFilter, page, size);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ApiResponse<RecipeDto>> getRecipe(@PathVariable("id") String id) {
+        return recipeService.getRecipe(id)
+                .onErrorMap(RecipeNotFoundException.class, ReactiveRecipeController::notFound);
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ApiResponse<RecipeDto>> deleteRecipe(@PathVariable("id") String id) {
+        return recipeService.deleteRecipe(id)
+                .onErrorMap(RecipeNotFoundException.class, ReactiveRecipeController::notFound);
+    }
+
+    @PutMapping
+    public Mono<ApiResponse<RecipeDto>> updateRecipe(@Valid @RequestBody RecipeDto recipeDto) {
+        return recipeService.updateRecipe(recipeDto)
+                .onErrorMap(RecipeNotFoundException.class, ReactiveRecipeController::notFound)
+                .onErrorMap(RecipeConflictException.class, exception -> new ResponseStatusException(
+                        HttpStatus.CONFLICT, exception.getMessage(), exception));
+    }
+
+    private static ResponseStatusException notFound(RecipeNotFoundException exception) {
+        return new ResponseStatusException(HttpStatus.NOT_FOUND, exception.getMessage(), exception);
+    }
+}
@@ -0,0 +1,16 @@
+package com.nhira.abnrecipeapp.service.api;
+
+import com.nhira.abnrecipeapp.dto.RecipeDto;
+import com.nhira.abnrecipeapp.dto.RecipeFilterDto;
+import com.nhira.abnrecipeapp.utils.ApiResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveRecipeService {
+    Flux<RecipeDto> getAllRecipes(int page, int size);
+    Flux<RecipeDto> filterRecipes(RecipeFilterDto filter, int page, int size);
+    Mono<ApiResponse<RecipeDto>> createRecipe(RecipeDto recipeDto);
+    Mono<ApiResponse<RecipeDto>> updateRecipe(RecipeDto recipeDto);
+    Mono<ApiResponse<RecipeDto>> getRecipe(String id);
+    Mono<ApiResponse<RecipeDto>> deleteRecipe(String id);
+}
@@ -0,0 +1,314 @@
+package com.nhira.abnrecipeapp.service.impl;
+
+import com.nhira.abnrecipeapp.dto.IngredientDto;
+import com.nhira.abnrecipeapp.dto.RecipeDto;
+import com.nhira.abnrecipeapp.dto.RecipeFilterDto;
+import com.nhira.abnrecipeapp.events.RecipeChangedEvent;
+import com.nhira.abnrecipeapp.exceptions.RecipeConflictException;
+import com.nhira.abnrecipeapp.exceptions.RecipeNotFoundException;
+import com.nhira.abnrecipeapp.service.api.ReactiveRecipeService;
+import com.nhira.abnrecipeapp.utils.ApiResponse;
+import com.nhira.abnrecipeapp.utils.Utils;
+import com.nhira.abnrecipeapp.utils.enums.ChangeType;
+import com.nhira.abnrecipeapp.utils.enums.RecipeClassification;
+import com.nhira.abnrecipeapp.utils.enums.ResponseCode;
+import com.nhira.abnrecipeapp.utils.enums.UnitOfMeasure;
+import io.r2dbc.spi.Row;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Non-blocking counterpart of {@link RecipeServiceImpl} over R2DBC, active with the {@code reactive} profile. It reads
+ * and writes the tables Hibernate maps, so both variants share one schema. Ingredients of streamed recipes are read
+ * in batches, one {@code IN} query per batch. Writes record their outbox row in the same transaction and publish a
+ * {@link RecipeChangedEvent} once it commits, like the JPA ones.
+ */
+@Slf4j
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveRecipeServiceImpl implements ReactiveRecipeService {
+
+    static final int INGREDIENT_BATCH_SIZE = 100;
+
+    private static final String SELECT_RECIPE = "SELECT r.id, r.name, r.number_of_servings, r.classification, " +
+            "r.instructions, r.version FROM recipe r ";
+    private static final String NEWEST_FIRST_PAGE = "ORDER BY r.date_created DESC, r.id DESC LIMIT :limit OFFSET :offset";
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public Flux<RecipeDto> getAllRecipes(int page, int size) {
+        log.debug("Stream all recipes, page {} of size {}", page, size);
+        return withIngredients(databaseClient.sql(SELECT_RECIPE + NEWEST_FIRST_PAGE)
+                .bind("limit", size)
+                .bind("offset", (long) page * size)
+                .map(ReactiveRecipeServiceImpl::toRecipeDto)
+                .all());
+    }
+
+    @Override
+    public Flux<RecipeDto> filterRecipes(RecipeFilterDto filter, int page, int size) {
+        log.debug("Stream recipes with criteria: {}", filter);
+        StringBuilder sql = new StringBuilder(SELECT_RECIPE).append("WHERE 1 = 1 ");
+        Map<String, Object> criteria = new LinkedHashMap<>();
+        if (filter.getClassification() != null) {
+            sql.append("AND r.classification = :classification ");
+            criteria.put("classification", filter.getClassification().name());
+        }
+        if (filter.getNumberOfServings() != 0) {
+            sql.append("AND r.number_of_servings = :numberOfServings ");
+            criteria.put("numberOfServings", filter.getNumberOfServings());
+        }
+        if (StringUtils.hasText(filter.getInstructionSearch())) {
+            sql.append("AND LOWER(r.instructions) LIKE :instructionSearch ");
+            criteria.put("instructionSearch", "%" + escapeLike(filter.getInstructionSearch().toLowerCase(Locale.ROOT)) + "%");
+        }
+        String ingredientName = Utils.normalizeIngredientName(filter.getIngredientName());
+        if (StringUtils.hasText(ingredientName)) {
+            sql.append(filter.isIncludeIngredient() ? "AND " : "AND NOT ")
+                    .append("EXISTS (SELECT 1 FROM ingredient i WHERE i.recipe_id = r.id AND i.normalized_name = :ingredientName) ");
+            criteria.put("ingredientName", ingredientName);
+        }
+        sql.append(NEWEST_FIRST_PAGE);
+
+        DatabaseClient.GenericExecuteSpec query = databaseClient.sql(sql.toString())
+                .bind("limit", size)
+                .bind("offset", (long) page * size);
+        for (Map.Entry<String, Object> criterion : criteria.entrySet()) {
+            query = query.bind(criterion.getKey(), criterion.getValue());
+        }
+        return withIngredients(query.map(ReactiveRecipeServiceImpl::toRecipeDto).all());
+    }
+
+    @Override
+    public Mono<ApiResponse<RecipeDto>> createRecipe(RecipeDto recipeDto) {
+        String id = recipeDto.getId() != null ? recipeDto.getId() : UUID.randomUUID().toString();
+        OffsetDateTime now = OffsetDateTime.now();
+        RecipeDto savedRecipe = copyOf(recipeDto, id, 0L);
+        return bindName(databaseClient.sql("INSERT INTO recipe (id, date_created, last_updated, version, name, " +
+                        "number_of_servings, classification, instructions) " +
+                        "VALUES (:id, :dateCreated, :lastUpdated, 0, :name, :numberOfServings, " +
+                        ":classification, :instructions)"), "classification", recipeDto.getClassification())
+                .bind("id", id)
+                .bind("dateCreated", now)
+                .bind("lastUpdated", now)
+                .bind("name", recipeDto.getName())
+                .bind("numberOfServings", recipeDto.getNumberOfServings())
+                .bind("instructions", recipeDto.getInstructions())
+                .then()
+                .then(insertIngredients(id, recipeDto.getIngredientList(), now))
+                .then(recordChange(id, ChangeType.CREATED, now))
+                .as(transactionalOperator::transactional)
+                .then(publishChange(id))
+                .thenReturn(Utils.createResponse(savedRecipe, true, ResponseCode.SUCCESS));
+    }
+
+    @Override
+    public Mono<ApiResponse<RecipeDto>> updateRecipe(RecipeDto recipeDto) {
+        String id = recipeDto.getId();
+        if (id == null) {
+            return Mono.error(notFound(null));
+        }
+        OffsetDateTime now = OffsetDateTime.now();
+        Mono<Long> expectedVersion = recipeDto.getVersion() != null
+                ? Mono.just(recipeDto.getVersion())
+                : databaseClient.sql("SELECT r.version FROM recipe r WHERE r.id = :id")
+                .bind("id", id)
+                .map(row -> row.get("version", Long.class))
+                .one()
+                .switchIfEmpty(Mono.error(() -> notFound(id)));
+        return expectedVersion
+                .flatMap(version -> bindName(databaseClient.sql("UPDATE recipe SET name = :name, " +
+                                "number_of_servings = :numberOfServings, classification = :classification, " +
+                                "instructions = :instructions, last_updated = :lastUpdated, version = version + 1 " +
+                                "WHERE id = :id AND version = :version"), "classification", recipeDto.getClassification())
+                        .bind("name", recipeDto.getName())
+                        .bind("numberOfServings", recipeDto.getNumberOfServings())
+                        .bind("instructions", recipeDto.getInstructions())
+                        .bind("lastUpdated", now)
+                        .bind("id", id)
+                        .bind("version", version)
+                        .fetch()
+                        .rowsUpdated()
+                        .flatMap(updated -> updated > 0
+                                ? Mono.just(version + 1)
+                                : exists(id).flatMap(exists -> Mono.error(exists
+                                ? new RecipeConflictException("Recipe with id " + id + " is no longer at version " + version)
+                                : notFound(id)))))
+                .flatMap(version -> databaseClient.sql("DELETE FROM ingredient WHERE recipe_id = :id")
+                        .bind("id", id)
+                        .then()
+                        .then(insertIngredients(id, recipeDto.getIngredientList(), now))
+                        .then(recordChange(id, ChangeType.UPDATED, now))
+                        .thenReturn(version))
+                .as(transactionalOperator::transactional)
+                .flatMap(version -> publishChange(id).thenReturn(version))
+                .map(version -> Utils.createResponse(copyOf(recipeDto, id, version), true, ResponseCode.SUCCESS));
+    }
+
+    @Override
+    public Mono<ApiResponse<RecipeDto>> getRecipe(String id) {
+        return findRecipe(id)
+                .map(recipeDto -> Utils.createResponse(recipeDto, true, ResponseCode.SUCCESS));
+    }
+
+    @Override
+    public Mono<ApiResponse<RecipeDto>> deleteRecipe(String id) {
+        return findRecipe(id)
+                .flatMap(recipeDto -> databaseClient.sql("DELETE FROM ingredient WHERE recipe_id = :id")
+                        .bind("id", id)
+                        .then()
+                        .then(databaseClient.sql("DELETE FROM recipe WHERE id = :id").bind("id", id).then())
+                        .then(recordChange(id, ChangeType.DELETED, OffsetDateTime.now()))
+                        .thenReturn(Utils.createResponse(recipeDto, true, ResponseCode.SUCCESS)))
+                .as(transactionalOperator::transactional)
+                .flatMap(response -> publishChange(id).thenReturn(response));
+    }
+
+    private Mono<RecipeDto> findRecipe(String id) {
+        return withIngredients(databaseClient.sql(SELECT_RECIPE + "WHERE r.id = :id")
+                .bind("id", id)
+                .map(ReactiveRecipeServiceImpl::toRecipeDto)
+                .all())
+                .next()
+                .switchIfEmpty(Mono.error(() -> notFound(id)));
+    }
+
+    private Mono<Boolean> exists(String id) {
+        return databaseClient.sql("SELECT r.id FROM recipe r WHERE r.id = :id")
+                .bind("id", id)
+                .map(row -> true)
+                .first()
+                .defaultIfEmpty(false);
+    }
+
+    private Flux<RecipeDto> withIngredients(Flux<RecipeDto> recipes) {
+        return recipes.buffer(INGREDIENT_BATCH_SIZE).concatMap(this::readIngredients);
+    }
+
+    private Flux<RecipeDto> readIngredients(List<RecipeDto> recipes) {
+        Map<String, RecipeDto> recipesById = new LinkedHashMap<>();
+        recipes.forEach(recipe -> recipesById.put(recipe.getId(), recipe));
+        return databaseClient.sql("SELECT i.recipe_id, i.name, i.quantity, i.unit_of_measure FROM ingredient i " +
+                        "WHERE i.recipe_id IN (:recipeIds) ORDER BY i.position")
+                .bind("recipeIds", new ArrayList<>(recipesById.keySet()))
+                .map((row, metadata) -> Map.entry(row.get("recipe_id", String.class), toIngredientDto(row)))
+                .all()
+                .doOnNext(ingredient -> recipesById.get(ingredient.getKey()).getIngredientList().add(ingredient.getValue()))
+                .thenMany(Flux.fromIterable(recipes));
+    }
+
+    private Mono<Void> insertIngredients(String recipeId, List<IngredientDto> ingredients, OffsetDateTime now) {
+        return Flux.range(0, ingredients.size())
+                .concatMap(position -> insertIngredient(recipeId, position, ingredients.get(position), now))
+                .then();
+    }
+
+    private Mono<Void> insertIngredient(String recipeId, int position, IngredientDto ingredient, OffsetDateTime now) {
+        return bindName(databaseClient.sql("INSERT INTO ingredient (id, date_created, last_updated, version, name, " +
+                        "normalized_name, quantity, unit_of_measure, position, recipe_id) " +
+                        "VALUES (:id, :dateCreated, :lastUpdated, 0, :name, :normalizedName, :quantity, " +
+                        ":unitOfMeasure, :position, :recipeId)"), "unitOfMeasure", ingredient.getUnitOfMeasure())
+                .bind("id", UUID.randomUUID().toString())
+                .bind("dateCreated", now)
+                .bind("lastUpdated", now)
+                .bind("name", ingredient.getName())
+                .bind("normalizedName", Utils.normalizeIngredientName(ingredient.getName()))
+                .bind("quantity", ingredient.getQuantity())
+                .bind("position", position)
+                .bind("recipeId", recipeId)
+                .then();
+    }
+
+    /**
+     * Same outbox row {@link RecipeChangeServiceImpl} records for the JPA writes, inserted as the last statement of
+     * the R2DBC transaction so the change feed and delta sync see reactive writes too.
+     */
+    private Mono<Void> recordChange(String recipeId, ChangeType changeType, OffsetDateTime changedAt) {
+        return databaseClient.sql("INSERT INTO recipe_change (recipe_id, change_type, changed_at) " +
+                        "VALUES (:recipeId, :changeType, :changedAt)")
+                .bind("recipeId", recipeId)
+                .bind("changeType", changeType.name())
+                .bind("changedAt", changedAt)
+                .then();
+    }
+
+    /**
+     * Tells the search index, the caches and the list validator about a committed write. Their listeners read
+     * through JPA, so they run off the event loop.
+     */
+    private Mono<Void> publishChange(String recipeId) {
+        return Mono.fromRunnable(() -> eventPublisher.publishEvent(new RecipeChangedEvent(recipeId)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindName(DatabaseClient.GenericExecuteSpec spec, String name,
+                                                              Enum<?> value) {
+        return value == null ? spec.bindNull(name, String.class) : spec.bind(name, value.name());
+    }
+
+    private static <E extends Enum<E>> E valueOf(Class<E> type, String name) {
+        return name == null ? null : Enum.valueOf(type, name);
+    }
+
+    private static RecipeDto toRecipeDto(Row row) {
+        return RecipeDto.builder()
+                .id(row.get("id", String.class))
+                .name(row.get("name", String.class))
+                .numberOfServings(row.get("number_of_servings", Long.class))
+                .classification(valueOf(RecipeClassification.class, row.get("classification", String.class)))
+                .instructions(row.get("instructions", String.class))
+                .version(row.get("version", Long.class))
+                .ingredientList(new ArrayList<>())
+                .build();
+    }
+
+    private static IngredientDto toIngredientDto(Row row) {
+        return IngredientDto.builder()
+                .name(row.get("name", String.class))
+                .quantity(row.get("quantity", Double.class))
+                .unitOfMeasure(valueOf(UnitOfMeasure.class, row.get("unit_of_measure", String.class)))
+                .build();
+    }
+
+    private static RecipeDto copyOf(RecipeDto recipeDto, String id, Long version) {
+        return RecipeDto.builder()
+                .id(id)
+                .name(recipeDto.getName())
+                .numberOfServings(recipeDto.getNumberOfServings())
+                .classification(recipeDto.getClassification())
+                .ingredientList(recipeDto.getIngredientList())
+                .instructions(recipeDto.getInstructions())
+                .version(version)
+                .build();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static RecipeNotFoundException notFound(String id) {
+        return new RecipeNotFoundException("Recipe with id " + id + " was not found ");
+    }
+}
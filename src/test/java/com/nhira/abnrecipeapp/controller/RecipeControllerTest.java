@@ -1,28 +1,67 @@
 package com.nhira.abnrecipeapp.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nhira.abnrecipeapp.config.RecipeQueryExecutor;
+import com.nhira.abnrecipeapp.dto.CursorPageDto;
+import com.nhira.abnrecipeapp.dto.IngredientDto;
+import com.nhira.abnrecipeapp.dto.RecipeBatchDto;
+import com.nhira.abnrecipeapp.dto.RecipeChangeDto;
+import com.nhira.abnrecipeapp.dto.RecipeChangesDto;
 import com.nhira.abnrecipeapp.dto.RecipeDto;
+import com.nhira.abnrecipeapp.dto.RecipeFacetsDto;
 import com.nhira.abnrecipeapp.dto.RecipeFilterDto;
+import com.nhira.abnrecipeapp.dto.RecipeIdsDto;
+import com.nhira.abnrecipeapp.dto.RecipeImportResultDto;
+import com.nhira.abnrecipeapp.dto.RecipeSyncDto;
+import com.nhira.abnrecipeapp.dto.ShoppingListDto;
+import com.nhira.abnrecipeapp.dto.ShoppingListItemDto;
+import com.nhira.abnrecipeapp.dto.ShoppingListRequestDto;
+import com.nhira.abnrecipeapp.events.RecipeChangeStream;
+import com.nhira.abnrecipeapp.exceptions.RecipeConflictException;
 import com.nhira.abnrecipeapp.exceptions.RecipeNotFoundException;
+import com.nhira.abnrecipeapp.service.api.RecipeChangeService;
+import com.nhira.abnrecipeapp.service.api.RecipeExportService;
+import com.nhira.abnrecipeapp.service.api.RecipeImportService;
 import com.nhira.abnrecipeapp.service.api.RecipeService;
+import com.nhira.abnrecipeapp.utils.RecipeFields;
+import com.nhira.abnrecipeapp.utils.RecipeSyncToken;
+import com.nhira.abnrecipeapp.utils.RecipeVersion;
+import com.nhira.abnrecipeapp.utils.Utils;
+import com.nhira.abnrecipeapp.utils.enums.ChangeType;
+import com.nhira.abnrecipeapp.utils.enums.RecipeClassification;
 import com.nhira.abnrecipeapp.utils.enums.ResponseCode;
+import com.nhira.abnrecipeapp.utils.enums.UnitOfMeasure;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.OffsetDateTime;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static com.nhira.abnrecipeapp.utils.RecipeTestDataUtil.*;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -30,6 +69,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 
 @WebMvcTest(controllers = RecipeController.class)
+@Import(RecipeQueryExecutor.class)
 class RecipeControllerTest {
 
     @Autowired
@@ -38,9 +78,32 @@ class RecipeControllerTest {
     @MockBean
     private RecipeService recipeService;
 
+    @MockBean
+    private RecipeImportService recipeImportService;
+
+    @MockBean
+    private RecipeExportService recipeExportService;
+
+    @MockBean
+    private RecipeChangeService recipeChangeService;
+
+    @MockBean
+    private RecipeChangeStream recipeChangeStream;
+
+    @MockBean
+    private PlatformTransactionManager transactionManager;
+
     @Autowired
     private ObjectMapper mapper;
 
+    private final RecipeVersion version = new RecipeVersion(OffsetDateTime.parse("2022-11-28T10:15:30.123456Z"), 1);
+
+    @BeforeEach
+    void setUp() {
+        when(recipeService.getRecipeVersion(anyString())).thenReturn(version);
+        when(recipeService.getRecipesVersion()).thenReturn(version);
+    }
+
     @Test
     void givenValidRecipeDto_whenCreateRecipe_shouldReturnSuccessfulCreationResponse() throws Exception {
         RecipeDto recipeDto = getNonVeganRecipeDto();
@@ -72,6 +135,262 @@ class RecipeControllerTest {
                 .andDo(print());
     }
 
+    @Test
+    void givenRecipeIds_whenBatchGetRecipes_shouldReturnFoundRecipesAndMissingIds() throws Exception {
+        RecipeDto recipeDto = getVeganRecipeDto();
+        RecipeBatchDto batch = RecipeBatchDto.builder()
+                .recipes(List.of(recipeDto))
+                .missingIds(List.of("unknown"))
+                .build();
+        when(recipeService.getRecipes(List.of(recipeDto.getId(), "unknown")))
+                .thenReturn(Utils.createResponse(batch, true, ResponseCode.SUCCESS));
+
+        mockMvc.perform(post("/recipes/batch-get")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(new RecipeIdsDto(List.of(recipeDto.getId(), "unknown")))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.responseCode", is(ResponseCode.SUCCESS.name())))
+                .andExpect(jsonPath("$.body.recipes", hasSize(1)))
+                .andExpect(jsonPath("$.body.recipes[0].id", is(recipeDto.getId())))
+                .andExpect(jsonPath("$.body.missingIds[0]", is("unknown")));
+    }
+
+    @Test
+    void givenNoRecipeIds_whenBatchGetRecipes_shouldReturnBadRequestResponse() throws Exception {
+        mockMvc.perform(post("/recipes/batch-get")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(new RecipeIdsDto(Collections.emptyList()))))
+                .andExpect(status().isBadRequest());
+
+        verify(recipeService, never()).getRecipes(anyList());
+    }
+
+    @Test
+    void givenPrefix_whenSuggestIngredients_shouldReturnSuggestedNames() throws Exception {
+        when(recipeService.suggestIngredients("sal", 5))
+                .thenReturn(Utils.createResponse(List.of("salmon", "salt"), true, ResponseCode.SUCCESS));
+
+        mockMvc.perform(get("/recipes/ingredients/suggest")
+                        .param("prefix", "sal")
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.body", hasSize(2)))
+                .andExpect(jsonPath("$.body[0]", is("salmon")));
+    }
+
+    @Test
+    void givenLimitAboveMaximum_whenSuggestIngredients_shouldReturnBadRequestResponse() throws Exception {
+        mockMvc.perform(get("/recipes/ingredients/suggest")
+                        .param("prefix", "sal")
+                        .param("limit", "500"))
+                .andExpect(status().isBadRequest());
+
+        verify(recipeService, never()).suggestIngredients(anyString(), anyInt());
+    }
+
+    @Test
+    void givenRecipeFilter_whenGetFacets_shouldReturnFacetCounts() throws Exception {
+        RecipeFacetsDto facets = RecipeFacetsDto.builder()
+                .total(1)
+                .classifications(Map.of(RecipeClassification.VEGETARIAN, 1L))
+                .servings(Map.of(2L, 1L))
+                .ingredients(Map.of("lettuce", 1L))
+                .build();
+        when(recipeService.getFacets(any(RecipeFilterDto.class), eq(5)))
+                .thenReturn(Utils.createResponse(facets, true, ResponseCode.SUCCESS));
+
+        mockMvc.perform(get("/recipes/facets")
+                        .param("classification", "VEGETARIAN")
+                        .param("topIngredients", "5"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, version.eTag()))
+                .andExpect(jsonPath("$.body.total", is(1)))
+                .andExpect(jsonPath("$.body.classifications.VEGETARIAN", is(1)))
+                .andExpect(jsonPath("$.body.ingredients.lettuce", is(1)));
+
+        verify(recipeService).getFacets(argThat(filter -> filter.getClassification() == RecipeClassification.VEGETARIAN
+                && filter.getNumberOfServings() == 0), eq(5));
+    }
+
+    @Test
+    void givenTopIngredientsAboveMaximum_whenGetFacets_shouldReturnBadRequestResponse() throws Exception {
+        mockMvc.perform(get("/recipes/facets").param("topIngredients", "500"))
+                .andExpect(status().isBadRequest());
+
+        verify(recipeService, never()).getFacets(any(RecipeFilterDto.class), anyInt());
+    }
+
+    @Test
+    void givenPlannedRecipes_whenGetShoppingList_shouldReturnShoppingList() throws Exception {
+        ShoppingListDto shoppingList = ShoppingListDto.builder()
+                .ingredients(List.of(new IngredientDto("water", 2, UnitOfMeasure.LITRE)))
+                .missingIds(Collections.emptyList())
+                .build();
+        when(recipeService.getShoppingList(List.of(new ShoppingListItemDto("soup", 4))))
+                .thenReturn(Utils.createResponse(shoppingList, true, ResponseCode.SUCCESS));
+
+        mockMvc.perform(post("/recipes/shopping-list")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(
+                                new ShoppingListRequestDto(List.of(new ShoppingListItemDto("soup", 4))))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.body.ingredients[0].name", is("water")))
+                .andExpect(jsonPath("$.body.ingredients[0].unitOfMeasure", is(UnitOfMeasure.LITRE.name())));
+    }
+
+    @Test
+    void givenZeroServings_whenGetShoppingList_shouldReturnBadRequestResponse() throws Exception {
+        mockMvc.perform(post("/recipes/shopping-list")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(
+                                new ShoppingListRequestDto(List.of(new ShoppingListItemDto("soup", 0))))))
+                .andExpect(status().isBadRequest());
+
+        verify(recipeService, never()).getShoppingList(anyList());
+    }
+
+    @Test
+    void givenSince_whenGetChanges_shouldReturnChangesAfterIt() throws Exception {
+        RecipeChangesDto changes = RecipeChangesDto.builder()
+                .changes(List.of(new RecipeChangeDto(8, "c8c3cc08", ChangeType.DELETED,
+                        OffsetDateTime.parse("2022-11-28T10:15:30Z"))))
+                .nextSince(8)
+                .hasMore(false)
+                .build();
+        when(recipeChangeService.getChanges(7, 100))
+                .thenReturn(Utils.createResponse(changes, true, ResponseCode.SUCCESS));
+
+        mockMvc.perform(get("/recipes/changes").param("since", "7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.body.changes[0].sequence", is(8)))
+                .andExpect(jsonPath("$.body.changes[0].changeType", is(ChangeType.DELETED.name())))
+                .andExpect(jsonPath("$.body.nextSince", is(8)));
+    }
+
+    @Test
+    void givenLimitAboveMaximum_whenGetChanges_shouldReturnBadRequestResponse() throws Exception {
+        mockMvc.perform(get("/recipes/changes").param("limit", "5000"))
+                .andExpect(status().isBadRequest());
+
+        verify(recipeChangeService, never()).getChanges(anyLong(), anyInt());
+    }
+
+    @Test
+    void givenSince_whenSync_shouldReturnChangesAfterIt() throws Exception {
+        OffsetDateTime since = OffsetDateTime.parse("2022-11-28T10:15:30Z");
+        RecipeDto recipeDto = getVeganRecipeDto();
+        RecipeSyncDto chunk = RecipeSyncDto.builder()
+                .recipes(List.of(recipeDto))
+                .deletedIds(List.of("c8c3cc08"))
+                .continuation("next")
+                .hasMore(true)
+                .build();
+        when(recipeChangeService.sync(any(RecipeSyncToken.class), eq(100)))
+                .thenReturn(Utils.createResponse(chunk, true, ResponseCode.SUCCESS));
+
+        mockMvc.perform(get("/recipes/sync").param("since", since.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.body.recipes[0].id", is(recipeDto.getId())))
+                .andExpect(jsonPath("$.body.deletedIds[0]", is("c8c3cc08")))
+                .andExpect(jsonPath("$.body.continuation", is("next")))
+                .andExpect(jsonPath("$.body.hasMore", is(true)));
+
+        verify(recipeChangeService).sync(argThat(token -> token.getTimestamp().isEqual(since)), eq(100));
+    }
+
+    @Test
+    void givenInvalidContinuation_whenSync_shouldReturnBadRequestResponse() throws Exception {
+        mockMvc.perform(get("/recipes/sync").param("continuation", "not-a-token"))
+                .andExpect(status().isBadRequest());
+
+        verify(recipeChangeService, never()).sync(any(), anyInt());
+    }
+
+    @Test
+    void givenLastEventId_whenStreamChanges_shouldResumeAfterIt() throws Exception {
+        when(recipeChangeStream.subscribe(anyLong())).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/recipes/changes/stream")
+                        .param("since", "3")
+                        .header("Last-Event-ID", "12"))
+                .andExpect(request().asyncStarted());
+
+        verify(recipeChangeStream).subscribe(12);
+        verify(recipeChangeService, never()).getLatestSequence();
+    }
+
+    @Test
+    void givenNdjsonBody_whenImportRecipes_shouldStreamItToTheImportService() throws Exception {
+        RecipeImportResultDto result = RecipeImportResultDto.builder()
+                .received(2)
+                .imported(2)
+                .failures(Collections.emptyList())
+                .build();
+
+        when(recipeImportService.importRecipes(any(InputStream.class), eq(true)))
+                .thenReturn(Utils.createResponse(result, true, ResponseCode.SUCCESS));
+
+        mockMvc.perform(post("/recipes/import")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(mapper.writeValueAsString(getVeganRecipeDto()) + "\n"
+                                + mapper.writeValueAsString(getNonVeganRecipeDto()) + "\n"))
+                .andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.responseCode", is(ResponseCode.SUCCESS.name())))
+                .andExpect(jsonPath("$.body.imported", is(2)));
+    }
+
+    @Test
+    void givenRecipeFilter_whenExportRecipes_shouldStreamNdjsonWithoutServingsFilterByDefault() throws Exception {
+        String line = mapper.writeValueAsString(getVeganRecipeDto()) + "\n";
+
+        when(recipeExportService.exportRecipes(any(RecipeFilterDto.class), any(OutputStream.class))).thenAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(1);
+            out.write(line.getBytes());
+            return 1L;
+        });
+
+        mockMvc.perform(get("/recipes/export")
+                        .param("classification", "VEGETARIAN"))
+                .andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(line));
+
+        verify(recipeExportService).exportRecipes(argThat(filter -> filter.getNumberOfServings() == 0
+                && filter.getClassification() == RecipeClassification.VEGETARIAN), any(OutputStream.class));
+    }
+
+    @Test
+    void givenRecipeFilter_whenStreamRecipes_shouldStreamServerSentEvents() throws Exception {
+        String events = "event:recipe\ndata:" + mapper.writeValueAsString(getVeganRecipeDto()) + "\n\n"
+                + "event:end\ndata:{\"count\":1}\n\n";
+
+        when(recipeExportService.streamRecipes(any(RecipeFilterDto.class), eq(4L), any(OutputStream.class))).thenAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(2);
+            out.write(events.getBytes());
+            return 1L;
+        });
+
+        mockMvc.perform(get("/recipes/find/stream")
+                        .param("classification", "VEGETARIAN")
+                        .param("servings", "4"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(content().string(events));
+
+        verify(recipeExportService).streamRecipes(argThat(filter -> filter.getNumberOfServings() == 1
+                && filter.getClassification() == RecipeClassification.VEGETARIAN), eq(4L), any(OutputStream.class));
+    }
+
+    @Test
+    void givenZeroServings_whenStreamRecipes_shouldReturnBadRequestResponse() throws Exception {
+        mockMvc.perform(get("/recipes/find/stream").param("servings", "0"))
+                .andExpect(status().isBadRequest());
+
+        verify(recipeExportService, never()).streamRecipes(any(), any(), any());
+    }
+
     @Test
     void whenGetAllRecipes_shouldReturnSuccessfulResponseWithListOfAvailableRecipes() throws Exception {
         RecipeDto testRecipe = getVeganRecipeDto();
@@ -95,9 +414,12 @@ class RecipeControllerTest {
         when(recipeService.filterRecipes(any(RecipeFilterDto.class),anyInt(), anyInt())).thenReturn(recipes);
 
         RecipeFilterDto recipeFilter = getFilterDto();
-        ResultActions response = mockMvc.perform(get("/recipes/find")
-                .contentType(MediaType.APPLICATION_JSON)
-                .content(mapper.writeValueAsString(recipeFilter)));
+        MvcResult asyncResult = mockMvc.perform(get("/recipes/find")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(recipeFilter)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        ResultActions response = mockMvc.perform(asyncDispatch(asyncResult));
 
         response.andExpect(status().isOk())
                 .andDo(print())
@@ -107,6 +429,78 @@ class RecipeControllerTest {
                 .andExpect(jsonPath("$.content[0].numberOfServings", is((int)testRecipe.getNumberOfServings())));
     }
 
+    @Test
+    void givenFields_whenGetAllRecipes_shouldReturnRequestedFieldsOnly() throws Exception {
+        RecipeDto testRecipe = getVeganRecipeDto();
+        Page<Map<String, Object>> recipes = new PageImpl<>(Collections.singletonList(
+                Map.of("id", testRecipe.getId(), "name", testRecipe.getName())));
+
+        when(recipeService.getAllRecipes(eq(0), eq(10), eq(RecipeFields.parse("id,name")))).thenReturn(recipes);
+
+        mockMvc.perform(get("/recipes/find-all")
+                        .param("fields", "name, id")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.content[0].name", is(testRecipe.getName())))
+                .andExpect(jsonPath("$.content[0].instructions").doesNotExist());
+    }
+
+    @Test
+    void givenUnchangedRecipes_whenGetRecipesIfNoneMatch_shouldReturnNotModifiedWithoutStartingQuery() throws Exception {
+        mockMvc.perform(get("/recipes/find")
+                        .header(HttpHeaders.IF_NONE_MATCH, version.eTag())
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isNotModified());
+
+        verify(recipeService, never()).filterRecipes(any(RecipeFilterDto.class), anyInt(), anyInt());
+    }
+
+    @Test
+    void givenUnknownField_whenGetRecipes_shouldReturnBadRequestResponse() throws Exception {
+        mockMvc.perform(get("/recipes/find")
+                        .param("fields", "id,calories")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andDo(print());
+    }
+
+    @Test
+    void givenCursor_whenGetAllRecipes_shouldReturnSliceWithNextCursor() throws Exception {
+        RecipeDto testRecipe = getVeganRecipeDto();
+        CursorPageDto<RecipeDto> recipes = CursorPageDto.<RecipeDto>builder()
+                .content(Collections.singletonList(testRecipe))
+                .size(1)
+                .hasNext(true)
+                .nextCursor("next")
+                .build();
+
+        when(recipeService.getAllRecipes(eq(""), eq(1), eq(false))).thenReturn(recipes);
+
+        mockMvc.perform(get("/recipes/find-all")
+                        .param("cursor", "")
+                        .param("size", "1")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.nextCursor", is("next")))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    void givenInvalidCursor_whenGetRecipes_shouldReturnBadRequestResponse() throws Exception {
+        when(recipeService.filterRecipes(any(RecipeFilterDto.class), anyString(), anyInt(), anyBoolean()))
+                .thenThrow(new IllegalArgumentException("Invalid cursor"));
+
+        mockMvc.perform(get("/recipes/find")
+                        .param("cursor", "broken")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andDo(print());
+    }
+
     @Test
     void givenExistingRecipeID_whenGetRecipe_shouldReturnSuccessfulResponseRecipeWithIDSpecified() throws Exception {
 
@@ -124,6 +518,125 @@ class RecipeControllerTest {
                 .andExpect(jsonPath("$.body.numberOfServings", is((int) testRecipe.getNumberOfServings())));
     }
 
+    @Test
+    void givenServings_whenGetRecipe_shouldReturnRescaledIngredientsInLargestUnits() throws Exception {
+        RecipeDto testRecipe = getVeganRecipeDto();
+        when(recipeService.getRecipe(anyString())).thenReturn(getRecipeSuccessfulApiResponse(testRecipe));
+
+        mockMvc.perform(get("/recipes/{id}", testRecipe.getId())
+                        .param("servings", "8"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.body.numberOfServings", is(8)))
+                .andExpect(jsonPath("$.body.ingredientList[0].quantity", is(600.0)))
+                .andExpect(jsonPath("$.body.ingredientList[0].unitOfMeasure", is(UnitOfMeasure.GRAM.name())))
+                .andExpect(jsonPath("$.body.ingredientList[1].quantity", is(2.0)))
+                .andExpect(jsonPath("$.body.ingredientList[1].unitOfMeasure", is(UnitOfMeasure.LITRE.name())));
+
+        assertThat(testRecipe.getIngredientList().get(1).getQuantity()).isEqualTo(500);
+    }
+
+    @Test
+    void givenZeroServings_whenGetRecipe_shouldReturnBadRequestResponse() throws Exception {
+        mockMvc.perform(get("/recipes/{id}", UUID.randomUUID().toString())
+                        .param("servings", "0"))
+                .andExpect(status().isBadRequest());
+
+        verify(recipeService, never()).getRecipe(anyString());
+    }
+
+    @Test
+    void givenServings_whenFilterRecipes_shouldRescaleEveryRecipe() throws Exception {
+        when(recipeService.filterRecipes(any(RecipeFilterDto.class), eq(0), eq(10)))
+                .thenReturn(new PageImpl<>(List.of(getNonVeganRecipeDto())));
+
+        MvcResult result = mockMvc.perform(get("/recipes/find")
+                        .param("classification", "NON_VEGETARIAN")
+                        .param("servings", "6"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].numberOfServings", is(6)))
+                .andExpect(jsonPath("$.content[0].ingredientList[0].quantity", is(6.0)));
+    }
+
+    @Test
+    void givenExistingRecipeID_whenGetRecipe_shouldReturnValidators() throws Exception {
+        RecipeDto testRecipe = getVeganRecipeDto();
+        when(recipeService.getRecipe(anyString())).thenReturn(getRecipeSuccessfulApiResponse(testRecipe));
+
+        mockMvc.perform(get("/recipes/{id}", testRecipe.getId())
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(header().string(HttpHeaders.ETAG, version.eTag()))
+                .andExpect(header().dateValue(HttpHeaders.LAST_MODIFIED, version.lastModified() / 1000 * 1000));
+    }
+
+    @Test
+    void givenMatchingETag_whenGetRecipe_shouldReturnNotModified() throws Exception {
+        RecipeDto testRecipe = getVeganRecipeDto();
+        testRecipe.setVersion(3L);
+        when(recipeService.getRecipe(anyString())).thenReturn(getRecipeSuccessfulApiResponse(testRecipe));
+        when(recipeService.getRecipeVersion(anyString()))
+                .thenReturn(new RecipeVersion(version.getLastUpdated(), 1, 3L));
+
+        mockMvc.perform(get("/recipes/{id}", testRecipe.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, RecipeVersion.eTagOf(3))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andDo(print())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void givenCachedRecipeBehindStoredVersion_whenGetRecipe_shouldReturnETagOfServedVersion() throws Exception {
+        RecipeDto testRecipe = getVeganRecipeDto();
+        testRecipe.setVersion(4L);
+        when(recipeService.getRecipe(anyString())).thenReturn(getRecipeSuccessfulApiResponse(testRecipe));
+        when(recipeService.getRecipeVersion(anyString()))
+                .thenReturn(new RecipeVersion(version.getLastUpdated(), 1, 5L));
+
+        mockMvc.perform(get("/recipes/{id}", testRecipe.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, RecipeVersion.eTagOf(5))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(header().string(HttpHeaders.ETAG, RecipeVersion.eTagOf(4)))
+                .andExpect(header().doesNotExist(HttpHeaders.LAST_MODIFIED))
+                .andExpect(jsonPath("$.body.version", is(4)));
+    }
+
+    @Test
+    void givenUnchangedRecipes_whenGetAllRecipesIfModifiedSince_shouldReturnNotModified() throws Exception {
+        mockMvc.perform(get("/recipes/find-all")
+                        .header(HttpHeaders.IF_MODIFIED_SINCE, version.lastModified() + 1000)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andDo(print());
+
+        verify(recipeService, never()).getAllRecipes(anyInt(), anyInt());
+    }
+
+    @Test
+    void givenStaleETag_whenGetRecipes_shouldReturnFilteredPage() throws Exception {
+        when(recipeService.filterRecipes(any(RecipeFilterDto.class), anyInt(), anyInt()))
+                .thenReturn(new PageImpl<>(Collections.singletonList(getVeganRecipeDto())));
+
+        MvcResult asyncResult = mockMvc.perform(get("/recipes/find")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"stale\"")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(header().string(HttpHeaders.ETAG, version.eTag()))
+                .andExpect(jsonPath("$.content", hasSize(1)));
+    }
+
     @Test
     void givenNonExistentRecipeID_whenGetRecipe_shouldReturnNotFoundResponse() throws Exception {
         when(recipeService.getRecipe(anyString())).thenThrow(
@@ -181,6 +694,50 @@ class RecipeControllerTest {
                 .andExpect(jsonPath("$.body.numberOfServings", is((int) recipeDto.getNumberOfServings())));;
     }
 
+    @Test
+    void givenIfMatch_whenUpdateRecipe_shouldUpdateThatVersionAndReturnNewETag() throws Exception {
+        RecipeDto recipeDto = getNonVeganRecipeDto();
+        RecipeDto updated = getNonVeganRecipeDto();
+        updated.setVersion(8L);
+
+        when(recipeService.updateRecipe(argThat(dto -> Long.valueOf(7).equals(dto.getVersion()))))
+                .thenReturn(getRecipeSuccessfulApiResponse(updated));
+
+        mockMvc.perform(put("/recipes")
+                        .header(HttpHeaders.IF_MATCH, "\"7\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(recipeDto)))
+                .andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"8\""))
+                .andExpect(jsonPath("$.body.version", is(8)));
+    }
+
+    @Test
+    void givenStaleIfMatch_whenUpdateRecipe_shouldReturnPreconditionFailedResponse() throws Exception {
+        when(recipeService.updateRecipe(any(RecipeDto.class))).thenThrow(new RecipeConflictException("stale"));
+
+        mockMvc.perform(put("/recipes")
+                        .header(HttpHeaders.IF_MATCH, "\"7\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(getNonVeganRecipeDto())))
+                .andExpect(status().isPreconditionFailed())
+                .andDo(print());
+    }
+
+    @Test
+    void givenStaleVersionInBody_whenUpdateRecipe_shouldReturnConflictResponse() throws Exception {
+        RecipeDto recipeDto = getNonVeganRecipeDto();
+        recipeDto.setVersion(1L);
+        when(recipeService.updateRecipe(any(RecipeDto.class))).thenThrow(new RecipeConflictException("stale"));
+
+        mockMvc.perform(put("/recipes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(recipeDto)))
+                .andExpect(status().isConflict())
+                .andDo(print());
+    }
+
     @Test
     void givenInvalidRecipeDto_whenUpdateRecipe_shouldReturnBadRequestResponse() throws Exception {
 
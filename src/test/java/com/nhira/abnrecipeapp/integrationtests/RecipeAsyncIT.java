@@ -0,0 +1,113 @@
+package com.nhira.abnrecipeapp.integrationtests;
+
+import com.nhira.abnrecipeapp.config.RecipeQueryExecutor;
+import com.nhira.abnrecipeapp.mapper.DtoMapper;
+import com.nhira.abnrecipeapp.model.Recipe;
+import com.nhira.abnrecipeapp.repository.RecipeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static com.nhira.abnrecipeapp.utils.RecipeTestDataUtil.getVeganRecipeDto;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "recipe.async.enabled=true",
+        "recipe.async.pool-size=1",
+        "recipe.async.queue-capacity=0",
+        "recipe.async.query-timeout=2s"
+})
+@AutoConfigureMockMvc
+class RecipeAsyncIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @Autowired
+    private RecipeQueryExecutor recipeQueryExecutor;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @AfterEach
+    void tearDown() {
+        recipeRepository.deleteAll();
+    }
+
+    @Test
+    void givenAsyncMode_whenGetRecipes_shouldReadThemOffTheServletThread() throws Exception {
+        Recipe recipe = recipeRepository.save(DtoMapper.MAPPER.toRecipeEntity(getVeganRecipeDto()));
+
+        MvcResult asyncResult = mockMvc.perform(get("/recipes/find").param("numberOfServings", "0"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].id", is(recipe.getId())));
+    }
+
+    @Test
+    void givenQueryOutlivingTheTimeout_whenGetRecipes_shouldCancelItAndFreeThePool() throws Exception {
+        Recipe recipe = recipeRepository.save(DtoMapper.MAPPER.toRecipeEntity(getVeganRecipeDto()));
+        CompletableFuture<Object> slowQuery = recipeQueryExecutor.submit(() -> entityManager
+                .createNativeQuery("SELECT COUNT(*) FROM SYSTEM_RANGE(1, 100000) a, SYSTEM_RANGE(1, 100000) b " +
+                        "WHERE MOD(a.X + b.X, 7) = 0")
+                .getSingleResult());
+
+        assertThrows(ExecutionException.class, () -> slowQuery.get(10, TimeUnit.SECONDS));
+
+        MvcResult asyncResult = mockMvc.perform(get("/recipes/find").param("numberOfServings", "0"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id", is(recipe.getId())));
+    }
+
+    @Test
+    void givenSaturatedQueryPool_whenGetRecipes_shouldReturnServiceUnavailable() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Boolean> slowQuery = recipeQueryExecutor.submit(() -> {
+            running.countDown();
+            try {
+                return release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        });
+        running.await(10, TimeUnit.SECONDS);
+
+        try {
+            mockMvc.perform(get("/recipes/find").param("numberOfServings", "0"))
+                    .andExpect(request().asyncNotStarted())
+                    .andExpect(status().isServiceUnavailable());
+        } finally {
+            release.countDown();
+            slowQuery.get(10, TimeUnit.SECONDS);
+        }
+    }
+}
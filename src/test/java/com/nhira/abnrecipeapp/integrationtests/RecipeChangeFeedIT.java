@@ -0,0 +1,164 @@
+package com.nhira.abnrecipeapp.integrationtests;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nhira.abnrecipeapp.dto.RecipeDto;
+import com.nhira.abnrecipeapp.repository.RecipeRepository;
+import com.nhira.abnrecipeapp.service.api.RecipeChangeService;
+import com.nhira.abnrecipeapp.utils.enums.ChangeType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.nhira.abnrecipeapp.utils.RecipeTestDataUtil.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class RecipeChangeFeedIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @Autowired
+    private RecipeChangeService recipeChangeService;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @AfterEach
+    void tearDown() {
+        recipeRepository.deleteAll();
+    }
+
+    @Test
+    void givenCreateUpdateAndDelete_whenGetChanges_shouldReturnThemInOrder() throws Exception {
+        long since = recipeChangeService.getLatestSequence();
+        RecipeDto recipeDto = getVeganRecipeDto();
+
+        mockMvc.perform(post("/recipes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(recipeDto)))
+                .andExpect(status().isCreated());
+        recipeDto.setName("Updated salad");
+        mockMvc.perform(put("/recipes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(recipeDto)))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/recipes/{id}", recipeDto.getId()))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/recipes/changes").param("since", Long.toString(since)).param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.body.changes[*].recipeId", everyItem(is(recipeDto.getId()))))
+                .andExpect(jsonPath("$.body.changes[*].changeType",
+                        contains(ChangeType.CREATED.name(), ChangeType.UPDATED.name())))
+                .andExpect(jsonPath("$.body.nextSince", is((int) since + 2)))
+                .andExpect(jsonPath("$.body.hasMore", is(true)));
+
+        mockMvc.perform(get("/recipes/changes").param("since", Long.toString(since + 2)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.body.changes[*].changeType", contains(ChangeType.DELETED.name())))
+                .andExpect(jsonPath("$.body.hasMore", is(false)));
+    }
+
+    @Test
+    void givenStaleVersion_whenUpdateRecipe_shouldRecordNoChange() throws Exception {
+        RecipeDto recipeDto = getVeganRecipeDto();
+        mockMvc.perform(post("/recipes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(recipeDto)))
+                .andExpect(status().isCreated());
+        long since = recipeChangeService.getLatestSequence();
+
+        recipeDto.setVersion(42L);
+        mockMvc.perform(put("/recipes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(recipeDto)))
+                .andExpect(status().isConflict());
+
+        assertThat(recipeChangeService.getLatestSequence()).isEqualTo(since);
+    }
+
+    @Test
+    void givenCreatesAndDelete_whenSyncInChunks_shouldReturnRemainingRecipesAndTombstones() throws Exception {
+        OffsetDateTime since = OffsetDateTime.now().minusSeconds(1);
+        RecipeDto deleted = getVeganRecipeDto();
+        RecipeDto kept = getNonVeganRecipeDto();
+        for (RecipeDto recipeDto : List.of(deleted, kept)) {
+            mockMvc.perform(post("/recipes")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(mapper.writeValueAsString(recipeDto)))
+                    .andExpect(status().isCreated());
+        }
+        mockMvc.perform(delete("/recipes/{id}", deleted.getId()))
+                .andExpect(status().isOk());
+
+        List<String> recipeIds = new ArrayList<>();
+        List<String> deletedIds = new ArrayList<>();
+        JsonNode chunk = sync(get("/recipes/sync").param("since", since.toString()).param("size", "1"));
+        recipeIds.addAll(ids(chunk.path("recipes"), "id"));
+        deletedIds.addAll(ids(chunk.path("deletedIds"), null));
+        while (chunk.path("hasMore").asBoolean()) {
+            assertThat(chunk.path("recipes").size() + chunk.path("deletedIds").size()).isEqualTo(1);
+            chunk = sync(get("/recipes/sync").param("continuation", chunk.path("continuation").asText()).param("size", "1"));
+            recipeIds.addAll(ids(chunk.path("recipes"), "id"));
+            deletedIds.addAll(ids(chunk.path("deletedIds"), null));
+        }
+
+        assertThat(recipeIds).contains(kept.getId()).doesNotContain(deleted.getId());
+        assertThat(deletedIds).contains(deleted.getId()).doesNotContain(kept.getId());
+    }
+
+    private JsonNode sync(MockHttpServletRequestBuilder request) throws Exception {
+        String content = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return mapper.readTree(content).path("body");
+    }
+
+    private static List<String> ids(JsonNode items, String field) {
+        List<String> ids = new ArrayList<>();
+        items.forEach(item -> ids.add(field == null ? item.asText() : item.path(field).asText()));
+        return ids;
+    }
+
+    @Test
+    void givenSubscriber_whenRecipeCreated_shouldStreamTheChange() throws Exception {
+        MvcResult stream = mockMvc.perform(get("/recipes/changes/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        RecipeDto recipeDto = getNonVeganRecipeDto();
+
+        mockMvc.perform(post("/recipes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(recipeDto)))
+                .andExpect(status().isCreated());
+
+        String events = "";
+        for (int attempt = 0; attempt < 50 && !events.contains(recipeDto.getId()); attempt++) {
+            Thread.sleep(100);
+            events = stream.getResponse().getContentAsString();
+        }
+        assertThat(events)
+                .contains("event:recipe-change")
+                .contains("\"recipeId\":\"" + recipeDto.getId() + "\"")
+                .contains("\"changeType\":\"CREATED\"");
+    }
+}
@@ -0,0 +1,109 @@
+package com.nhira.abnrecipeapp.integrationtests;
+
+import com.nhira.abnrecipeapp.dto.RecipeDto;
+import com.nhira.abnrecipeapp.dto.RecipeFilterDto;
+import com.nhira.abnrecipeapp.mapper.DtoMapper;
+import com.nhira.abnrecipeapp.metrics.RecipeMetrics;
+import com.nhira.abnrecipeapp.model.Recipe;
+import com.nhira.abnrecipeapp.repository.RecipeRepository;
+import com.nhira.abnrecipeapp.service.api.RecipeService;
+import com.nhira.abnrecipeapp.utils.enums.RecipeClassification;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.cache.CacheManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.nhira.abnrecipeapp.utils.RecipeTestDataUtil.getVeganRecipeDto;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+class RecipeCoalescingIT {
+
+    private static final int CALLERS = 8;
+
+    @Autowired
+    private RecipeService recipeService;
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @SpyBean
+    private RecipeMetrics recipeMetrics;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @AfterEach
+    void tearDown() {
+        recipeRepository.deleteAll();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @Test
+    void givenConcurrentReadsOfTheSameRecipe_whenGetRecipe_shouldQueryTheDatabaseOnce() throws Exception {
+        Recipe recipe = recipeRepository.save(DtoMapper.MAPPER.toRecipeEntity(getVeganRecipeDto()));
+        doAnswer(invocation -> {
+            Thread.sleep(200);
+            return invocation.callRealMethod();
+        }).when(recipeMetrics).time(eq("get"), ArgumentMatchers.<Supplier<Object>>any());
+
+        List<RecipeDto> results = concurrently(() -> recipeService.getRecipe(recipe.getId()).getBody());
+
+        assertThat(results).hasSize(CALLERS).allMatch(recipeDto -> recipe.getId().equals(recipeDto.getId()));
+        verify(recipeMetrics, times(1)).time(eq("get"), ArgumentMatchers.<Supplier<Object>>any());
+    }
+
+    @Test
+    void givenConcurrentIdenticalFilters_whenFilterRecipes_shouldQueryTheDatabaseOnce() throws Exception {
+        recipeRepository.save(DtoMapper.MAPPER.toRecipeEntity(getVeganRecipeDto()));
+        RecipeFilterDto filter = RecipeFilterDto.builder().classification(RecipeClassification.VEGETARIAN).build();
+        doAnswer(invocation -> {
+            Thread.sleep(200);
+            return invocation.callRealMethod();
+        }).when(recipeMetrics)
+                .time(eq("find"), any(RecipeFilterDto.class), ArgumentMatchers.<Supplier<Object>>any());
+
+        List<Long> totals = concurrently(() -> recipeService.filterRecipes(filter, 0, 10).getTotalElements());
+
+        assertThat(totals).hasSize(CALLERS).containsOnly(1L);
+        verify(recipeMetrics, times(1))
+                .time(eq("find"), any(RecipeFilterDto.class), ArgumentMatchers.<Supplier<Object>>any());
+    }
+
+    private static <T> List<T> concurrently(Callable<T> call) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<T>> futures = IntStream.range(0, CALLERS)
+                    .mapToObj(caller -> executor.submit(() -> {
+                        start.await();
+                        return call.call();
+                    }))
+                    .collect(Collectors.toList());
+            start.countDown();
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
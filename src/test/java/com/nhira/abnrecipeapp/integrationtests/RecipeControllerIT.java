@@ -3,6 +3,9 @@ package com.nhira.abnrecipeapp.integrationtests;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.nhira.abnrecipeapp.dto.RecipeDto;
 import com.nhira.abnrecipeapp.dto.RecipeFilterDto;
+import com.nhira.abnrecipeapp.dto.RecipeIdsDto;
+import com.nhira.abnrecipeapp.dto.ShoppingListItemDto;
+import com.nhira.abnrecipeapp.dto.ShoppingListRequestDto;
 import com.nhira.abnrecipeapp.mapper.DtoMapper;
 import com.nhira.abnrecipeapp.model.Recipe;
 import com.nhira.abnrecipeapp.repository.RecipeRepository;
@@ -12,15 +15,22 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 
+import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static com.nhira.abnrecipeapp.utils.RecipeTestDataUtil.*;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -41,6 +51,9 @@ public class RecipeControllerIT {
     @Autowired
     private ObjectMapper mapper;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @AfterEach
     void tearDown() {
         recipeRepository.deleteAll();
@@ -91,14 +104,51 @@ public class RecipeControllerIT {
                 .andExpect(jsonPath("$.content", hasSize(recipes.size())));
     }
 
+    @Test
+    void givenListETag_whenGetAllRecipesAgain_shouldReturnNotModifiedUntilARecipeChanges() throws Exception {
+        Recipe recipe = recipeRepository.save(DtoMapper.MAPPER.toRecipeEntity(getVeganRecipeDto()));
+
+        String eTag = mockMvc.perform(get("/recipes/find-all"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/recipes/find-all").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        recipeRepository.deleteById(recipe.getId());
+
+        mockMvc.perform(get("/recipes/find-all").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(eTag)))
+                .andExpect(jsonPath("$.content", hasSize(0)));
+    }
+
+    @Test
+    void givenListETag_whenARecipeChangesWithoutALocalEvent_shouldReturnTheListingAgain() throws Exception {
+        Recipe recipe = recipeRepository.save(DtoMapper.MAPPER.toRecipeEntity(getVeganRecipeDto()));
+
+        String eTag = mockMvc.perform(get("/recipes/find-all"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        jdbcTemplate.update("UPDATE recipe SET name = ?, last_updated = ?, version = version + 1 WHERE id = ?",
+                "Renamed elsewhere", OffsetDateTime.now().plusSeconds(1), recipe.getId());
+
+        mockMvc.perform(get("/recipes/find-all").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(eTag)));
+    }
+
     @Test
     void givenRecipeFilter_whenGetRecipes_shouldReturnSuccessfulResponseWithListOfRecipesThatMatchFilter() throws Exception {
         Recipe recipe = recipeRepository.save(DtoMapper.MAPPER.toRecipeEntity(getNonVeganRecipeDto()));
 
         RecipeFilterDto recipeFilter = getFilterDto();
-        ResultActions response = mockMvc.perform(get("/recipes/find")
-                .contentType(MediaType.APPLICATION_JSON)
-                .content(mapper.writeValueAsString(recipeFilter)));
+        MvcResult asyncResult = mockMvc.perform(get("/recipes/find")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(recipeFilter)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        ResultActions response = mockMvc.perform(asyncDispatch(asyncResult));
 
         response.andExpect(status().isOk())
                 .andDo(print())
@@ -108,6 +158,90 @@ public class RecipeControllerIT {
                 .andExpect(jsonPath("$.content[0].numberOfServings", is((int)recipe.getNumberOfServings())));
     }
 
+    @Test
+    void givenMisspelledIngredientAndFuzzyIngredient_whenGetRecipes_shouldReturnRecipesWithClosestIngredient() throws Exception {
+        Recipe recipe = recipeRepository.save(DtoMapper.MAPPER.toRecipeEntity(getNonVeganRecipeDto()));
+        recipeRepository.save(DtoMapper.MAPPER.toRecipeEntity(getVeganRecipeDto()));
+
+        MvcResult asyncResult = mockMvc.perform(get("/recipes/find")
+                        .param("ingredientName", "Eggs")
+                        .param("fuzzyIngredient", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].id", is(recipe.getId())));
+    }
+
+    @Test
+    void givenSameFilters_whenGetRecipesAndStreamRecipes_shouldMatchTheSameRecipes() throws Exception {
+        recipeRepository.save(DtoMapper.MAPPER.toRecipeEntity(getNonVeganRecipeDto()));
+        recipeRepository.save(DtoMapper.MAPPER.toRecipeEntity(getVeganRecipeDto()));
+        List<Map<String, String>> filters = List.of(
+                Map.of("numberOfServings", "0"),
+                Map.of("numberOfServings", "0", "instructionSearch", "boil"),
+                Map.of("numberOfServings", "0", "instructionSearch", "oil"),
+                Map.of("numberOfServings", "0", "ingredientName", "Eggs", "fuzzyIngredient", "true"),
+                Map.of("numberOfServings", "2", "ingredientName", "egg", "includeIngredient", "false"));
+
+        for (Map<String, String> filter : filters) {
+            MockHttpServletRequestBuilder find = get("/recipes/find").param("size", "50");
+            MockHttpServletRequestBuilder stream = get("/recipes/find/stream");
+            filter.forEach((name, value) -> {
+                find.param(name, value);
+                stream.param(name, value);
+            });
+            MvcResult asyncResult = mockMvc.perform(find)
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            String page = mockMvc.perform(asyncDispatch(asyncResult))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            List<String> found = new ArrayList<>();
+            mapper.readTree(page).path("content").forEach(recipe -> found.add(recipe.path("id").asText()));
+
+            String events = mockMvc.perform(stream)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            List<String> streamed = new ArrayList<>();
+            for (String event : events.split("\n\n")) {
+                if (event.startsWith("event:recipe\ndata:")) {
+                    streamed.add(mapper.readTree(event.substring("event:recipe\ndata:".length())).path("id").asText());
+                }
+            }
+
+            assertThat(streamed).as("recipes streamed for %s", filter).containsExactlyElementsOf(found);
+            assertThat(events).endsWith("event:end\ndata:{\"count\":" + found.size() + "}\n\n");
+        }
+    }
+
+    @Test
+    void givenPrefix_whenSuggestIngredients_shouldReturnKnownIngredientNames() throws Exception {
+        recipeRepository.save(DtoMapper.MAPPER.toRecipeEntity(getVeganRecipeDto()));
+
+        mockMvc.perform(get("/recipes/ingredients/suggest").param("prefix", "Lett"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.responseCode", is(ResponseCode.SUCCESS.name())))
+                .andExpect(jsonPath("$.body", contains("lettuce")));
+    }
+
+    @Test
+    void givenClassification_whenGetFacets_shouldCountMatchesAndEveryClassification() throws Exception {
+        recipeRepository.save(DtoMapper.MAPPER.toRecipeEntity(getVeganRecipeDto()));
+        recipeRepository.save(DtoMapper.MAPPER.toRecipeEntity(getNonVeganRecipeDto()));
+
+        mockMvc.perform(get("/recipes/facets").param("classification", "VEGETARIAN"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.responseCode", is(ResponseCode.SUCCESS.name())))
+                .andExpect(jsonPath("$.body.total", is(1)))
+                .andExpect(jsonPath("$.body.classifications.VEGETARIAN", is(1)))
+                .andExpect(jsonPath("$.body.classifications.NON_VEGETARIAN", is(1)))
+                .andExpect(jsonPath("$.body.servings.2", is(1)))
+                .andExpect(jsonPath("$.body.ingredients.lettuce", is(1)));
+    }
+
     @Test
     void givenExistingRecipeID_whenGetRecipe_shouldReturnSuccessfulResponseRecipeWithIDSpecified() throws Exception {
 
@@ -132,6 +266,86 @@ public class RecipeControllerIT {
                 .andDo(print());
     }
 
+    @Test
+    void givenExistingAndUnknownRecipeIDs_whenBatchGetRecipes_shouldReturnFoundRecipesAndMissingIds() throws Exception {
+        Recipe vegan = recipeRepository.save(DtoMapper.MAPPER.toRecipeEntity(getVeganRecipeDto()));
+        Recipe nonVegan = recipeRepository.save(DtoMapper.MAPPER.toRecipeEntity(getNonVeganRecipeDto()));
+        String unknownId = UUID.randomUUID().toString();
+
+        mockMvc.perform(post("/recipes/batch-get")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(
+                                new RecipeIdsDto(List.of(vegan.getId(), unknownId, nonVegan.getId())))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.responseCode", is(ResponseCode.SUCCESS.name())))
+                .andExpect(jsonPath("$.body.recipes[*].id", contains(vegan.getId(), nonVegan.getId())))
+                .andExpect(jsonPath("$.body.recipes[0].ingredientList", hasSize(vegan.getIngredients().size())))
+                .andExpect(jsonPath("$.body.missingIds", contains(unknownId)));
+    }
+
+    @Test
+    void givenServings_whenBatchGetAndGetRecipe_shouldRescaleWithoutChangingTheCachedRecipe() throws Exception {
+        Recipe vegan = recipeRepository.save(DtoMapper.MAPPER.toRecipeEntity(getVeganRecipeDto()));
+
+        mockMvc.perform(get("/recipes/{id}", vegan.getId()).param("servings", "4"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.body.numberOfServings", is(4)))
+                .andExpect(jsonPath("$.body.ingredientList[?(@.name == 'water')].quantity", contains(1.0)))
+                .andExpect(jsonPath("$.body.ingredientList[?(@.name == 'water')].unitOfMeasure", contains("LITRE")));
+
+        mockMvc.perform(post("/recipes/batch-get")
+                        .param("servings", "1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(new RecipeIdsDto(List.of(vegan.getId())))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.body.recipes[0].ingredientList[?(@.name == 'lettuce')].quantity", contains(75.0)));
+
+        mockMvc.perform(get("/recipes/{id}", vegan.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.body.numberOfServings", is(2)))
+                .andExpect(jsonPath("$.body.ingredientList[?(@.name == 'water')].quantity", contains(500.0)))
+                .andExpect(jsonPath("$.body.ingredientList[?(@.name == 'water')].unitOfMeasure", contains("MILLILITRE")));
+    }
+
+    @Test
+    void givenPlannedRecipes_whenGetShoppingList_shouldReturnScaledIngredientsInLargestUnits() throws Exception {
+        Recipe vegan = recipeRepository.save(DtoMapper.MAPPER.toRecipeEntity(getVeganRecipeDto()));
+        Recipe nonVegan = recipeRepository.save(DtoMapper.MAPPER.toRecipeEntity(getNonVeganRecipeDto()));
+        String unknownId = UUID.randomUUID().toString();
+
+        mockMvc.perform(post("/recipes/shopping-list")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(new ShoppingListRequestDto(List.of(
+                                new ShoppingListItemDto(vegan.getId(), 8),
+                                new ShoppingListItemDto(nonVegan.getId(), 3),
+                                new ShoppingListItemDto(unknownId, 1))))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.responseCode", is(ResponseCode.SUCCESS.name())))
+                .andExpect(jsonPath("$.body.ingredients[*].name", contains("lettuce", "water", "egg")))
+                .andExpect(jsonPath("$.body.ingredients[*].quantity", contains(600.0, 2.0, 3.0)))
+                .andExpect(jsonPath("$.body.ingredients[*].unitOfMeasure", contains("GRAM", "LITRE", "UNIT")))
+                .andExpect(jsonPath("$.body.missingIds", contains(unknownId)));
+    }
+
+    @Test
+    void givenIngredientWithoutUnit_whenGetShoppingList_shouldListItWithoutAUnit() throws Exception {
+        RecipeDto recipeDto = getNonVeganRecipeDto();
+        recipeDto.getIngredientList().get(0).setUnitOfMeasure(null);
+        mockMvc.perform(post("/recipes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(recipeDto)))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(post("/recipes/shopping-list")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(new ShoppingListRequestDto(List.of(
+                                new ShoppingListItemDto(recipeDto.getId(), 2))))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.body.ingredients[*].name", contains("egg")))
+                .andExpect(jsonPath("$.body.ingredients[*].quantity", contains(2.0)))
+                .andExpect(jsonPath("$.body.ingredients[0].unitOfMeasure").doesNotExist());
+    }
+
     @Test
     void givenExistingRecipeID_whenDeleteRecipe_shouldReturnSuccessfulResponseRecipeDeleted() throws Exception {
 
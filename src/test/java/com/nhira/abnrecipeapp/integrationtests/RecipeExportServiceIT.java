@@ -0,0 +1,114 @@
+package com.nhira.abnrecipeapp.integrationtests;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nhira.abnrecipeapp.dto.RecipeDto;
+import com.nhira.abnrecipeapp.dto.RecipeFilterDto;
+import com.nhira.abnrecipeapp.mapper.DtoMapper;
+import com.nhira.abnrecipeapp.repository.RecipeRepository;
+import com.nhira.abnrecipeapp.service.api.RecipeExportService;
+import com.nhira.abnrecipeapp.utils.enums.RecipeClassification;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.nhira.abnrecipeapp.utils.RecipeTestDataUtil.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "recipe.export.batch-size=2")
+class RecipeExportServiceIT {
+
+    @Autowired
+    private RecipeExportService recipeExportService;
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    private RecipeDto vegan;
+    private RecipeDto nonVegan;
+    private RecipeDto anotherVegan;
+
+    @BeforeEach
+    void setUp() {
+        vegan = getVeganRecipeDto();
+        nonVegan = getNonVeganRecipeDto();
+        anotherVegan = getVeganRecipeDto();
+        anotherVegan.setId(null);
+        anotherVegan.setName("Another green smoothie");
+        recipeRepository.saveAll(Arrays.asList(DtoMapper.MAPPER.toRecipeEntity(vegan),
+                DtoMapper.MAPPER.toRecipeEntity(nonVegan),
+                DtoMapper.MAPPER.toRecipeEntity(anotherVegan)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        recipeRepository.deleteAll();
+    }
+
+    @Test
+    void givenNoCriteria_whenExportRecipes_shouldWriteEveryRecipeAsOneJsonLine() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long exported = recipeExportService.exportRecipes(new RecipeFilterDto(), out);
+
+        List<RecipeDto> lines = readLines(out);
+        assertThat(exported).isEqualTo(3);
+        assertThat(lines).hasSize(3);
+        assertThat(lines).contains(vegan, nonVegan);
+        assertThat(lines).allSatisfy(recipe -> assertThat(recipe.getIngredientList()).isNotEmpty());
+    }
+
+    @Test
+    void givenRecipeFilter_whenExportRecipes_shouldWriteMatchingRecipesOnly() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long exported = recipeExportService.exportRecipes(RecipeFilterDto.builder()
+                .classification(RecipeClassification.VEGETARIAN)
+                .build(), out);
+
+        assertThat(exported).isEqualTo(2);
+        assertThat(readLines(out)).extracting(RecipeDto::getName)
+                .containsExactlyInAnyOrder(vegan.getName(), anotherVegan.getName());
+    }
+
+    @Test
+    void givenServings_whenStreamRecipes_shouldWriteRescaledRecipeEventsAndEndEvent() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long streamed = recipeExportService.streamRecipes(RecipeFilterDto.builder()
+                .classification(RecipeClassification.NON_VEGETARIAN)
+                .build(), 3L, out);
+
+        String[] events = out.toString(StandardCharsets.UTF_8).split("\n\n");
+        assertThat(streamed).isEqualTo(1);
+        assertThat(events).hasSize(2);
+        assertThat(events[0]).startsWith("event:recipe\ndata:");
+        RecipeDto recipe = mapper.readValue(events[0].substring("event:recipe\ndata:".length()), RecipeDto.class);
+        assertThat(recipe.getId()).isEqualTo(nonVegan.getId());
+        assertThat(recipe.getNumberOfServings()).isEqualTo(3);
+        assertThat(recipe.getIngredientList().get(0).getQuantity()).isEqualTo(3);
+        assertThat(events[1]).isEqualTo("event:end\ndata:{\"count\":1}");
+    }
+
+    private List<RecipeDto> readLines(ByteArrayOutputStream out) {
+        return Arrays.stream(out.toString(StandardCharsets.UTF_8).split("\n"))
+                .map(line -> {
+                    try {
+                        return mapper.readValue(line, RecipeDto.class);
+                    } catch (Exception exception) {
+                        throw new IllegalStateException(exception);
+                    }
+                })
+                .collect(Collectors.toList());
+    }
+}
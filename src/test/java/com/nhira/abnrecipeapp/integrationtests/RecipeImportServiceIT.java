@@ -0,0 +1,91 @@
+package com.nhira.abnrecipeapp.integrationtests;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nhira.abnrecipeapp.dto.RecipeDto;
+import com.nhira.abnrecipeapp.dto.RecipeImportFailureDto;
+import com.nhira.abnrecipeapp.dto.RecipeImportResultDto;
+import com.nhira.abnrecipeapp.mapper.DtoMapper;
+import com.nhira.abnrecipeapp.repository.RecipeRepository;
+import com.nhira.abnrecipeapp.service.api.RecipeImportService;
+import com.nhira.abnrecipeapp.service.api.RecipeService;
+import com.nhira.abnrecipeapp.utils.ApiResponse;
+import com.nhira.abnrecipeapp.utils.enums.ResponseCode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static com.nhira.abnrecipeapp.utils.RecipeTestDataUtil.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "recipe.import.chunk-size=2")
+class RecipeImportServiceIT {
+
+    @Autowired
+    private RecipeImportService recipeImportService;
+
+    @Autowired
+    private RecipeService recipeService;
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @AfterEach
+    void tearDown() {
+        recipeRepository.deleteAll();
+    }
+
+    @Test
+    void givenJsonArrayOfValidRecipes_whenImportRecipes_shouldPersistAllRecipes() throws Exception {
+        RecipeDto vegan = getVeganRecipeDto();
+        RecipeDto nonVegan = getNonVeganRecipeDto();
+        RecipeDto withoutId = getVeganRecipeDto();
+        withoutId.setId(null);
+        String body = mapper.writeValueAsString(Arrays.asList(vegan, nonVegan, withoutId));
+
+        ApiResponse<RecipeImportResultDto> actualResponse = recipeImportService.importRecipes(toStream(body), false);
+
+        assertThat(actualResponse.isSuccessful()).isTrue();
+        assertThat(actualResponse.getResponseCode()).isEqualTo(ResponseCode.SUCCESS);
+        assertThat(actualResponse.getBody().getReceived()).isEqualTo(3);
+        assertThat(actualResponse.getBody().getImported()).isEqualTo(3);
+        assertThat(recipeRepository.count()).isEqualTo(3);
+        assertThat(recipeService.getRecipe(vegan.getId()).getBody()).isEqualTo(vegan);
+    }
+
+    @Test
+    void givenNdjsonWithInvalidAndDuplicateRecords_whenImportRecipes_shouldImportTheRestAndReportFailures() throws Exception {
+        RecipeDto existing = getVeganRecipeDto();
+        recipeRepository.save(DtoMapper.MAPPER.toRecipeEntity(existing));
+        RecipeDto valid = getNonVeganRecipeDto();
+        String body = mapper.writeValueAsString(valid) + "\n"
+                + "{\"name\": \"No instructions\"}\n"
+                + "\n"
+                + "{not json\n"
+                + mapper.writeValueAsString(existing) + "\n";
+
+        ApiResponse<RecipeImportResultDto> actualResponse = recipeImportService.importRecipes(toStream(body), true);
+
+        assertThat(actualResponse.isSuccessful()).isFalse();
+        assertThat(actualResponse.getResponseCode()).isEqualTo(ResponseCode.ERROR);
+        assertThat(actualResponse.getBody().getReceived()).isEqualTo(4);
+        assertThat(actualResponse.getBody().getImported()).isEqualTo(1);
+        assertThat(actualResponse.getBody().getFailures())
+                .extracting(RecipeImportFailureDto::getIndex)
+                .containsExactly(1L, 2L, 3L);
+        assertThat(actualResponse.getBody().getFailures().get(2).getRecipeId()).isEqualTo(existing.getId());
+        assertThat(recipeRepository.count()).isEqualTo(2);
+        assertThat(recipeRepository.existsById(valid.getId())).isTrue();
+    }
+
+    private static ByteArrayInputStream toStream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,92 @@
+package com.nhira.abnrecipeapp.integrationtests;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nhira.abnrecipeapp.dto.RecipeDto;
+import com.nhira.abnrecipeapp.metrics.RecipeMetrics;
+import com.nhira.abnrecipeapp.repository.RecipeRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static com.nhira.abnrecipeapp.utils.RecipeTestDataUtil.getVeganRecipeDto;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+public class RecipeMetricsIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @AfterEach
+    void tearDown() {
+        recipeRepository.deleteAll();
+    }
+
+    @Test
+    void givenRecipeRequests_whenScrapePrometheus_shouldExposeLatencyPercentilesAndCounters() throws Exception {
+        RecipeDto recipeDto = getVeganRecipeDto();
+        mockMvc.perform(post("/recipes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(recipeDto)))
+                .andExpect(status().isCreated());
+        MvcResult asyncResult = mockMvc.perform(get("/recipes/find")
+                        .param("classification", "VEGETARIAN").param("ingredientName", "rice"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/recipes/{id}", "unknown"))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket{")))
+                .andExpect(content().string(containsString("quantile=\"0.99\"")))
+                .andExpect(content().string(containsString(
+                        "recipe_operations_seconds_count{operation=\"find\",shape=\"classification+servings+ingredient\",}")))
+                .andExpect(content().string(containsString("recipe_not_found_total{operation=\"get\",}")))
+                .andExpect(content().string(containsString("spring_data_repository_invocations_seconds_count{")))
+                .andExpect(content().string(containsString("hikaricp_connections_active")));
+    }
+
+    @Test
+    void givenInvalidRecipeDto_whenCreateRecipe_shouldCountValidationFailure() throws Exception {
+        double before = validationFailures();
+
+        mockMvc.perform(post("/recipes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(new RecipeDto())))
+                .andExpect(status().isBadRequest());
+
+        assertThat(validationFailures()).isEqualTo(before + 1);
+    }
+
+    private double validationFailures() {
+        return meterRegistry.counter(RecipeMetrics.VALIDATION_FAILURES, "target", "recipeDto").count();
+    }
+}
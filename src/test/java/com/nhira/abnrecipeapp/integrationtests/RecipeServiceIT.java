@@ -1,25 +1,35 @@
 package com.nhira.abnrecipeapp.integrationtests;
 
+import com.nhira.abnrecipeapp.config.CacheConfig;
+import com.nhira.abnrecipeapp.dto.CursorPageDto;
+import com.nhira.abnrecipeapp.dto.IngredientDto;
 import com.nhira.abnrecipeapp.dto.RecipeDto;
 import com.nhira.abnrecipeapp.dto.RecipeFilterDto;
+import com.nhira.abnrecipeapp.exceptions.RecipeConflictException;
 import com.nhira.abnrecipeapp.exceptions.RecipeNotFoundException;
 import com.nhira.abnrecipeapp.mapper.DtoMapper;
 import com.nhira.abnrecipeapp.model.Recipe;
 import com.nhira.abnrecipeapp.repository.RecipeRepository;
 import com.nhira.abnrecipeapp.service.api.RecipeService;
 import com.nhira.abnrecipeapp.utils.ApiResponse;
+import com.nhira.abnrecipeapp.utils.RecipeFields;
+import com.nhira.abnrecipeapp.utils.RecipeVersion;
 import com.nhira.abnrecipeapp.utils.enums.ResponseCode;
 import org.checkerframework.checker.units.qual.A;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -42,6 +52,9 @@ class RecipeServiceIT {
     @Autowired
     private RecipeRepository recipeRepository;
 
+    @Autowired
+    private CacheManager cacheManager;
+
     @AfterEach
     void tearDown() {
         recipeRepository.deleteAll();
@@ -77,6 +90,59 @@ class RecipeServiceIT {
 
     }
 
+    @Test
+    void givenRecipeDtoWithNewIngredients_whenUpdateRecipe_shouldReplaceStoredIngredients() {
+
+        RecipeDto expected = recipeService.createRecipe(getVeganRecipeDto()).getBody();
+        expected.setIngredientList(getNonVeganIngredients());
+        recipeService.updateRecipe(expected);
+
+        RecipeDto actual = recipeService.getRecipe(expected.getId()).getBody();
+        assertThat(actual.getIngredientList()).extracting(IngredientDto::getName).containsExactly("egg");
+    }
+
+    @Test
+    void givenOrderedIngredients_whenCreateAndUpdateRecipe_shouldReadThemBackInTheSameOrder() {
+        List<String> names = Arrays.asList("water", "lettuce", "salt", "basil", "olive oil", "garlic");
+        RecipeDto recipeDto = getVeganRecipeDto();
+        recipeDto.setIngredientList(names.stream()
+                .map(name -> IngredientDto.builder().name(name).quantity(1).build())
+                .collect(Collectors.toList()));
+        RecipeDto created = recipeService.createRecipe(recipeDto).getBody();
+        clearCaches();
+
+        assertThat(recipeService.getRecipes(List.of(created.getId())).getBody().getRecipes().get(0).getIngredientList())
+                .extracting(IngredientDto::getName).containsExactlyElementsOf(names);
+
+        List<IngredientDto> reversed = new ArrayList<>(created.getIngredientList());
+        Collections.reverse(reversed);
+        created.setIngredientList(reversed);
+        recipeService.updateRecipe(created);
+        clearCaches();
+
+        assertThat(recipeService.getRecipe(created.getId()).getBody().getIngredientList())
+                .extracting(IngredientDto::getName).containsExactlyElementsOf(
+                        reversed.stream().map(IngredientDto::getName).collect(Collectors.toList()));
+    }
+
+    @Test
+    void givenConcurrentEditsOfTheSameVersion_whenUpdateRecipe_shouldRejectTheSecondEdit() {
+        RecipeDto created = recipeService.createRecipe(getVeganRecipeDto()).getBody();
+        RecipeDto first = recipeService.getRecipe(created.getId()).getBody();
+        RecipeDto second = recipeService.getRecipe(created.getId()).getBody();
+
+        first.setName("First edit");
+        RecipeDto updated = recipeService.updateRecipe(first).getBody();
+        second.setName("Second edit");
+
+        assertThat(updated.getVersion()).isEqualTo(second.getVersion() + 1);
+        assertThrows(RecipeConflictException.class, () -> recipeService.updateRecipe(second));
+        RecipeDto stored = recipeService.getRecipe(created.getId()).getBody();
+        assertThat(stored.getName()).isEqualTo("First edit");
+        assertThat(stored.getVersion()).isEqualTo(updated.getVersion());
+        assertThat(stored.getIngredientList()).isEqualTo(created.getIngredientList());
+    }
+
     @Test
     void givenRecipeDtoWithIdThatDoesNotExist_whenUpdateRecipe_shouldThrowExceptionAndNotSaveRecipe() {
         assertThrows(RecipeNotFoundException.class, () -> {
@@ -112,6 +178,64 @@ class RecipeServiceIT {
 
     }
 
+    @Test
+    void givenRecipeFilterAndFields_whenFilterRecipes_shouldReturnRequestedFieldsOnly() {
+        RecipeDto expected = recipeService.createRecipe(getNonVeganRecipeDto()).getBody();
+        recipeService.createRecipe(getVeganRecipeDto());
+
+        Page<Map<String, Object>> summaries = recipeService.filterRecipes(getFilterDto(), 0, 10,
+                RecipeFields.parse("id,classification"));
+        Page<Map<String, Object>> ingredients = recipeService.filterRecipes(getFilterDto(), 0, 10,
+                RecipeFields.parse("ingredientList"));
+
+        assertThat(summaries.getTotalElements()).isEqualTo(1);
+        assertThat(summaries.getContent()).containsExactly(
+                Map.of("id", expected.getId(), "classification", expected.getClassification()));
+        assertThat(ingredients.getContent()).containsExactly(Map.of("ingredientList", expected.getIngredientList()));
+    }
+
+    @Test
+    void givenUpdatedRecipe_whenGetRecipeVersion_shouldChangeETag() {
+        RecipeDto recipe = recipeService.createRecipe(getVeganRecipeDto()).getBody();
+        RecipeVersion before = recipeService.getRecipeVersion(recipe.getId());
+        RecipeVersion listBefore = recipeService.getRecipesVersion();
+
+        recipe.setName("Greener smoothie");
+        recipeService.updateRecipe(recipe);
+
+        assertThat(recipeService.getRecipeVersion(recipe.getId()).eTag()).isNotEqualTo(before.eTag());
+        assertThat(recipeService.getRecipesVersion().eTag()).isNotEqualTo(listBefore.eTag());
+        assertThrows(RecipeNotFoundException.class, () -> recipeService.getRecipeVersion(UUID.randomUUID().toString()));
+    }
+
+    @Test
+    void givenCursors_whenGetAllRecipesByCursor_shouldVisitEveryRecipeOnce() {
+        String first = recipeService.createRecipe(getVeganRecipeDto()).getBody().getId();
+        String second = recipeService.createRecipe(getNonVeganRecipeDto()).getBody().getId();
+
+        CursorPageDto<RecipeDto> firstSlice = recipeService.getAllRecipes("", 1, true);
+        CursorPageDto<RecipeDto> secondSlice = recipeService.getAllRecipes(firstSlice.getNextCursor(), 1, false);
+
+        assertThat(firstSlice.getTotalElements()).isEqualTo(2);
+        assertThat(firstSlice.isHasNext()).isTrue();
+        assertThat(secondSlice.isHasNext()).isFalse();
+        assertThat(secondSlice.getNextCursor()).isNull();
+        assertThat(Arrays.asList(firstSlice.getContent().get(0).getId(), secondSlice.getContent().get(0).getId()))
+                .containsExactlyInAnyOrder(first, second);
+    }
+
+    @Test
+    void givenCursors_whenFilterRecipesByCursor_shouldOnlyVisitMatchingRecipes() {
+        ApiResponse<RecipeDto> expected = recipeService.createRecipe(getNonVeganRecipeDto());
+        recipeService.createRecipe(getVeganRecipeDto());
+
+        CursorPageDto<RecipeDto> slice = recipeService.filterRecipes(getFilterDto(), "", 10, true);
+
+        assertThat(slice.getContent()).containsExactly(expected.getBody());
+        assertThat(slice.getTotalElements()).isEqualTo(1);
+        assertThat(slice.isHasNext()).isFalse();
+    }
+
     @Test
     void givenRecipeID_whenGetRecipe_shouldReturnRecipe() {
 
@@ -129,6 +253,31 @@ class RecipeServiceIT {
 
     }
 
+    @Test
+    void givenCachedRecipe_whenUpdateRecipe_shouldEvictCachedRecipeAndServeUpdatedRecipe() {
+
+        RecipeDto expected = recipeService.createRecipe(getVeganRecipeDto()).getBody();
+        recipeService.getRecipe(expected.getId());
+        assertThat(cacheManager.getCache(CacheConfig.RECIPES).get(expected.getId())).isNotNull();
+
+        expected.setName("Updated recipe name");
+        recipeService.updateRecipe(expected);
+
+        assertThat(cacheManager.getCache(CacheConfig.RECIPES).get(expected.getId())).isNull();
+        assertThat(recipeService.getRecipe(expected.getId()).getBody().getName()).isEqualTo(expected.getName());
+    }
+
+    @Test
+    void givenCachedFirstPage_whenCreateRecipe_shouldServeNewRecipeOnFirstPage() {
+
+        recipeService.createRecipe(getVeganRecipeDto());
+        assertThat(recipeService.getAllRecipes(0, 10).getContent()).hasSize(1);
+
+        recipeService.createRecipe(getNonVeganRecipeDto());
+
+        assertThat(recipeService.getAllRecipes(0, 10).getContent()).hasSize(2);
+    }
+
     @Test
     void givenRecipeIDThatDoesNotExist_whenGetRecipe_shouldThrowException() {
         assertThrows(RecipeNotFoundException.class, () -> {
@@ -158,4 +307,7 @@ class RecipeServiceIT {
         });
     }
 
+    private void clearCaches() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
 }
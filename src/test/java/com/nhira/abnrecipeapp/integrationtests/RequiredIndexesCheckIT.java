@@ -0,0 +1,39 @@
+package com.nhira.abnrecipeapp.integrationtests;
+
+import com.nhira.abnrecipeapp.config.RequiredIndexesCheck;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class RequiredIndexesCheckIT {
+
+    @Autowired
+    private RequiredIndexesCheck requiredIndexesCheck;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void givenMigratedSchema_whenCheckIndexes_shouldPass() {
+        requiredIndexesCheck.afterSingletonsInstantiated();
+    }
+
+    @Test
+    void givenDroppedIndex_whenCheckIndexes_shouldFailNamingTheIndex() {
+        jdbcTemplate.execute("DROP INDEX idx_recipe_servings_date_created");
+        try {
+            IllegalStateException exception = assertThrows(IllegalStateException.class,
+                    () -> requiredIndexesCheck.afterSingletonsInstantiated());
+
+            assertThat(exception.getMessage()).contains("idx_recipe_servings_date_created");
+        } finally {
+            jdbcTemplate.execute("CREATE INDEX idx_recipe_servings_date_created " +
+                    "ON recipe (number_of_servings, date_created, id)");
+        }
+    }
+}
@@ -1,7 +1,13 @@
 package com.nhira.abnrecipeapp.repository;
 
+import com.nhira.abnrecipeapp.dto.RecipeSummaryDto;
+import com.nhira.abnrecipeapp.mapper.DtoMapper;
+import com.nhira.abnrecipeapp.model.Ingredient;
 import com.nhira.abnrecipeapp.model.Recipe;
+import com.nhira.abnrecipeapp.utils.RecipeVersion;
 import com.nhira.abnrecipeapp.utils.enums.RecipeClassification;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,15 +17,17 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static com.nhira.abnrecipeapp.utils.RecipeTestDataUtil.*;
 import static org.assertj.core.api.Assertions.assertThat;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 class RecipeRepositoryTest {
 
     @Autowired
@@ -53,6 +61,30 @@ class RecipeRepositoryTest {
         List<Recipe> recipeList = recipes.get().collect(Collectors.toList());
         assertThat(recipeList.get(0).getClassification()).isEqualTo(RecipeClassification.VEGETARIAN);
     }
+    @Test
+    void shouldCountRecipesPerFacetValue() {
+        List<Object[]> classifications = recipeRepository.countByClassification(null, 0, null, null, false);
+        List<Object[]> servings = recipeRepository.countByNumberOfServings(null, 0, null, null, false);
+        List<Object[]> ingredients = recipeRepository.countByIngredient(RecipeClassification.VEGETARIAN.name(),
+                0, null, null, false, PageRequest.of(0, 1));
+
+        assertThat(classifications).hasSize(2).allSatisfy(row -> assertThat(row[1]).isEqualTo(1L));
+        assertThat(servings).extracting(row -> row[0]).containsExactly(1L, 2L);
+        assertThat(ingredients).hasSize(1).allSatisfy(row -> assertThat(row[0]).isIn("lettuce", "water"));
+    }
+
+    @Test
+    void shouldReadIngredientQuantitiesOfRequestedRecipesOnly() {
+        Recipe vegan = recipeRepository.findAll().stream()
+                .filter(recipe -> recipe.getClassification() == RecipeClassification.VEGETARIAN)
+                .findFirst().orElseThrow();
+
+        List<Object[]> rows = recipeRepository.findIngredientQuantities(List.of(vegan.getId()));
+
+        assertThat(rows).hasSize(2).allSatisfy(row -> assertThat(row[0]).isEqualTo(vegan.getId()));
+        assertThat(rows).extracting(row -> row[3]).containsExactlyInAnyOrder("lettuce", "water");
+    }
+
     @Test
     void shouldFilterRecipesByNumberOfServings() {
         Pageable pageable = PageRequest.of(0, 10, Sort.by("dateCreated").descending());
@@ -110,6 +142,137 @@ class RecipeRepositoryTest {
         assertThat(recipeList.get(0).getName()).isEqualTo("Green smoothie");
     }
     @Test
+    void shouldMatchSearchTermInInstructionsIgnoringCaseAndLikeWildcards() {
+        Pageable pageable = PageRequest.of(0, 10);
+
+        assertThat(recipeRepository.filter(null, 0, "Boil", null, false, pageable))
+                .extracting(Recipe::getName).containsExactly("Boil egg");
+        assertThat(recipeRepository.filter(null, 0, "OIL", null, false, pageable))
+                .extracting(Recipe::getName).containsExactly("Boil egg");
+        assertThat(recipeRepository.filter(null, 0, "%", null, false, pageable)).isEmpty();
+    }
+
+    @Test
+    void shouldReadIngredientsInPositionOrder() {
+        Recipe recipe = getRecipe(getVeganRecipeDto());
+        recipe.getIngredients().get(0).setPosition(1);
+        recipe.getIngredients().get(1).setPosition(0);
+        entityManager.persist(recipe);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(recipeRepository.findById(recipe.getId()).orElseThrow().getIngredients())
+                .extracting(Ingredient::getName).containsExactly("water", "lettuce");
+    }
+
+    @Test
+    void shouldNotMatchIngredientAgainstUnitOfMeasureOrFieldNames() {
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("dateCreated").descending());
+        Page<Recipe> recipes = recipeRepository.filter(null,
+                0,
+                null,
+                "unitOfMeasure",
+                true, pageable);
+
+
+        assertThat(recipes).isEmpty();
+    }
+    @Test
+    void shouldCombineServingsWithOtherFilters() {
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("dateCreated").descending());
+        Page<Recipe> recipes = recipeRepository.filter(RecipeClassification.NON_VEGETARIAN.name(),
+                2,
+                null,
+                null,
+                false, pageable);
+
+
+        assertThat(recipes).isEmpty();
+    }
+    @Test
+    void shouldWalkAllRecipesNewestFirstByKeyset() {
+        Slice<Recipe> first = recipeRepository.findNewest(PageRequest.of(0, 1));
+
+        assertThat(first.getContent()).hasSize(1);
+        assertThat(first.hasNext()).isTrue();
+
+        Recipe last = first.getContent().get(0);
+        Slice<Recipe> second = recipeRepository.findOlderThan(last.getDateCreated(), last.getId(), PageRequest.of(0, 1));
+
+        assertThat(second.getContent()).hasSize(1);
+        assertThat(second.hasNext()).isFalse();
+        assertThat(second.getContent().get(0).getId()).isNotEqualTo(last.getId());
+    }
+    @Test
+    void shouldFilterRecipesByKeysetAndCountSeparately() {
+        Slice<Recipe> recipes = recipeRepository.filterNewest(RecipeClassification.VEGETARIAN.name(),
+                0,
+                null,
+                null,
+                false, PageRequest.of(0, 10));
+        long total = recipeRepository.countFilter(RecipeClassification.VEGETARIAN.name(),
+                0,
+                null,
+                null,
+                false);
+
+
+        assertThat(recipes.getContent()).hasSize(1);
+        assertThat(recipes.hasNext()).isFalse();
+        assertThat(total).isEqualTo(1);
+    }
+    @Test
+    void shouldStreamFilteredRecipes() {
+        try (Stream<Recipe> recipes = recipeRepository.streamFilter(null,
+                0,
+                null,
+                "egg",
+                true)) {
+
+            assertThat(recipes.map(Recipe::getClassification))
+                    .containsExactly(RecipeClassification.NON_VEGETARIAN);
+        }
+    }
+    @Test
+    void shouldLoadIngredientsOfAWholePageWithOneQuery() {
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Page<Recipe> recipes = recipeRepository.findAll(PageRequest.of(0, 10));
+        recipes.forEach(DtoMapper.MAPPER::toRecipeDto);
+
+
+        assertThat(recipes).hasSize(2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+    @Test
+    void shouldFilterRecipeSummaries() {
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("dateCreated").descending());
+        Page<RecipeSummaryDto> recipes = recipeRepository.filterSummaries(RecipeClassification.VEGETARIAN.name(),
+                0,
+                null,
+                null,
+                false, pageable);
+
+
+        assertThat(recipes.getTotalElements()).isEqualTo(1);
+        assertThat(recipes.getContent().get(0).getName()).isEqualTo(getVeganRecipeDto().getName());
+    }
+    @Test
+    void shouldReadRecipeVersionsWithoutLoadingRecipes() {
+        Recipe recipe = recipeRepository.findAll().get(0);
+
+        RecipeVersion recipeVersion = recipeRepository.findVersionById(recipe.getId());
+        RecipeVersion missingVersion = recipeRepository.findVersionById("missing");
+
+
+        assertThat(recipeVersion.getCount()).isEqualTo(1);
+        assertThat(recipeVersion.getLastUpdated()).isNotNull();
+        assertThat(missingVersion.exists()).isFalse();
+    }
+    @Test
     void shouldIgnoreNullFiltersAndReturnAllRecipes() {
         Pageable pageable = PageRequest.of(0, 10, Sort.by("dateCreated").descending());
         Page<Recipe> recipes = recipeRepository.filter(null,
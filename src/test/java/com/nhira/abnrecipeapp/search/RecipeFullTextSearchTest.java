@@ -0,0 +1,54 @@
+package com.nhira.abnrecipeapp.search;
+
+import com.nhira.abnrecipeapp.dto.RecipeFilterDto;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class RecipeFullTextSearchTest {
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Test
+    void givenWords_whenToTsQuery_shouldRequireEveryWordAsPrefix() {
+        assertThat(RecipeFullTextSearch.toTsQuery("Boil egg")).isEqualTo("boil:* & egg:*");
+    }
+
+    @Test
+    void givenQuotedPhrase_whenToTsQuery_shouldMatchPhraseAndRemainingWords() {
+        assertThat(RecipeFullTextSearch.toTsQuery("\"bring to boil\" egg"))
+                .isEqualTo("(bring <-> to <-> boil) & egg:*");
+    }
+
+    @Test
+    void givenTsQueryOperators_whenToTsQuery_shouldKeepOnlyWords() {
+        assertThat(RecipeFullTextSearch.toTsQuery("egg:* | !water & (")).isEqualTo("egg:* & water:*");
+        assertThat(RecipeFullTextSearch.toTsQuery("&|!")).isNull();
+        assertThat(RecipeFullTextSearch.toTsQuery(null)).isNull();
+    }
+
+    @Test
+    void givenDisabledFullTextSearch_whenSearch_shouldLeaveFilterToCaller() {
+        RecipeFullTextSearch fullTextSearch = new RecipeFullTextSearch(jdbcTemplate, false);
+        RecipeFilterDto filter = RecipeFilterDto.builder().instructionSearch("boil").build();
+
+        assertThat(fullTextSearch.search(filter, 0, 10)).isEmpty();
+        assertThat(fullTextSearch.searchAll(filter)).isEmpty();
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void givenNoInstructionSearch_whenSearch_shouldLeaveFilterToCaller() {
+        RecipeFullTextSearch fullTextSearch = new RecipeFullTextSearch(jdbcTemplate, true);
+
+        assertThat(fullTextSearch.search(new RecipeFilterDto(), 0, 10)).isEmpty();
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
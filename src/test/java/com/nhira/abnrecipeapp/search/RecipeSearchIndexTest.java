@@ -0,0 +1,229 @@
+package com.nhira.abnrecipeapp.search;
+
+import com.nhira.abnrecipeapp.dto.RecipeFacetsDto;
+import com.nhira.abnrecipeapp.dto.RecipeFilterDto;
+import com.nhira.abnrecipeapp.events.RecipeChangedEvent;
+import com.nhira.abnrecipeapp.model.Recipe;
+import com.nhira.abnrecipeapp.repository.RecipeRepository;
+import com.nhira.abnrecipeapp.utils.enums.RecipeClassification;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+
+import static com.nhira.abnrecipeapp.utils.RecipeTestDataUtil.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RecipeSearchIndexTest {
+
+    @Mock
+    private RecipeRepository recipeRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private RecipeSearchIndex recipeSearchIndex;
+
+    private Recipe vegan;
+    private Recipe nonVegan;
+
+    @BeforeEach
+    void setUp() {
+        vegan = getRecipe(getVeganRecipeDto());
+        nonVegan = getRecipe(getNonVeganRecipeDto());
+        when(recipeRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(Arrays.asList(vegan, nonVegan)));
+
+        recipeSearchIndex = new RecipeSearchIndex(recipeRepository, transactionManager, true, 500, Duration.ofMillis(100));
+        recipeSearchIndex.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        recipeSearchIndex.destroy();
+    }
+
+    @Test
+    void givenNoCriteria_whenSearch_shouldReturnAllRecipesNewestFirst() {
+        SearchHits hits = search(new RecipeFilterDto());
+
+        assertThat(hits.getTotal()).isEqualTo(2);
+        assertThat(hits.getRecipeIds()).containsExactly(nonVegan.getId(), vegan.getId());
+    }
+
+    @Test
+    void givenCombinedCriteria_whenSearch_shouldIntersectPostings() {
+        SearchHits hits = search(getFilterDto());
+
+        assertThat(hits.getRecipeIds()).containsExactly(nonVegan.getId());
+    }
+
+    @Test
+    void givenExcludedIngredient_whenSearch_shouldReturnRecipesWithoutIt() {
+        SearchHits hits = search(RecipeFilterDto.builder().ingredientName(" Egg ").includeIngredient(false).build());
+
+        assertThat(hits.getRecipeIds()).containsExactly(vegan.getId());
+    }
+
+    @Test
+    void givenInstructionPrefix_whenSearch_shouldMatchIndexedTokens() {
+        SearchHits hits = search(RecipeFilterDto.builder().instructionSearch("Blend").build());
+
+        assertThat(hits.getRecipeIds()).containsExactly(vegan.getId());
+    }
+
+    @Test
+    void givenInstructionSearch_whenSearch_shouldMatchTextInsideWordsIgnoringCase() {
+        assertThat(search(RecipeFilterDto.builder().instructionSearch("OIL").build()).getRecipeIds())
+                .containsExactly(nonVegan.getId());
+        assertThat(search(RecipeFilterDto.builder().instructionSearch("water to blend").build()).getRecipeIds())
+                .containsExactly(vegan.getId());
+        assertThat(search(RecipeFilterDto.builder().instructionSearch("blender to").build()).getRecipeIds())
+                .isEmpty();
+    }
+
+    @Test
+    void givenPageBeyondFirst_whenSearch_shouldSkipEarlierMatches() {
+        SearchHits hits = recipeSearchIndex.search(new RecipeFilterDto(), 1, 1).orElseThrow();
+
+        assertThat(hits.getTotal()).isEqualTo(2);
+        assertThat(hits.getRecipeIds()).containsExactly(vegan.getId());
+    }
+
+    @Test
+    void givenCursorRecipe_whenSearchAfter_shouldReturnOlderMatchesOnly() {
+        SearchHits first = recipeSearchIndex.searchAfter(new RecipeFilterDto(), null, 1).orElseThrow();
+        SearchHits second = recipeSearchIndex.searchAfter(new RecipeFilterDto(), nonVegan.getId(), 1).orElseThrow();
+
+        assertThat(first.getRecipeIds()).containsExactly(nonVegan.getId());
+        assertThat(first.isHasNext()).isTrue();
+        assertThat(second.getRecipeIds()).containsExactly(vegan.getId());
+        assertThat(second.isHasNext()).isFalse();
+    }
+
+    @Test
+    void givenUnknownCursorRecipe_whenSearchAfter_shouldDeferToDatabase() {
+        assertThat(recipeSearchIndex.searchAfter(new RecipeFilterDto(), "unknown", 1)).isEmpty();
+    }
+
+    @Test
+    void givenInstructionSearchWithoutTokens_whenSearch_shouldDeferToDatabase() {
+        Optional<SearchHits> hits = recipeSearchIndex.search(RecipeFilterDto.builder().instructionSearch("...").build(), 0, 10);
+
+        assertThat(hits).isEmpty();
+    }
+
+    @Test
+    void givenUpdatedRecipe_whenRecipeChanged_shouldReindexIt() {
+        vegan.setClassification(RecipeClassification.NON_VEGETARIAN);
+        when(recipeRepository.findAllById(anyIterable())).thenReturn(Collections.singletonList(vegan));
+
+        recipeSearchIndex.onRecipeChanged(new RecipeChangedEvent(vegan.getId()));
+
+        SearchHits hits = search(RecipeFilterDto.builder().classification(RecipeClassification.VEGETARIAN).build());
+        assertThat(hits.getRecipeIds()).isEmpty();
+    }
+
+    @Test
+    void givenDeletedRecipe_whenRecipeChanged_shouldRemoveIt() {
+        when(recipeRepository.findAllById(anyIterable())).thenReturn(Collections.emptyList());
+
+        recipeSearchIndex.onRecipeChanged(new RecipeChangedEvent(nonVegan.getId()));
+
+        SearchHits hits = search(new RecipeFilterDto());
+        assertThat(hits.getTotal()).isEqualTo(1);
+        assertThat(hits.getRecipeIds()).containsExactly(vegan.getId());
+    }
+
+    @Test
+    void givenMostDocumentsDeleted_whenRecipeChanged_shouldRenumberRemainingOnes() {
+        RecipeSearchIndex compactingIndex = new RecipeSearchIndex(recipeRepository, transactionManager, true, 1,
+                Duration.ofMillis(100));
+        compactingIndex.rebuild();
+        Recipe added = getRecipe(getVeganRecipeDto());
+        when(recipeRepository.findAllById(anyIterable())).thenReturn(Collections.singletonList(added));
+        compactingIndex.onRecipeChanged(new RecipeChangedEvent(added.getId()));
+        when(recipeRepository.findAllById(anyIterable())).thenReturn(Collections.emptyList());
+
+        compactingIndex.onRecipeChanged(new RecipeChangedEvent(vegan.getId()));
+        assertThat(compactingIndex.documentSlots()).isEqualTo(3);
+        compactingIndex.onRecipeChanged(new RecipeChangedEvent(nonVegan.getId()));
+
+        assertThat(compactingIndex.documentSlots()).isEqualTo(1);
+        assertThat(compactingIndex.search(new RecipeFilterDto(), 0, 10).orElseThrow().getRecipeIds())
+                .containsExactly(added.getId());
+        assertThat(compactingIndex.closestIngredient("lettuce")).contains("lettuce");
+        compactingIndex.destroy();
+    }
+
+    @Test
+    void givenFailedRefresh_whenRecipeChanged_shouldDeferToDatabaseUntilRebuilt() throws InterruptedException {
+        when(recipeRepository.findAllById(anyIterable())).thenThrow(new IllegalStateException("connection lost"));
+
+        recipeSearchIndex.onRecipeChanged(new RecipeChangedEvent(vegan.getId()));
+
+        assertThat(recipeSearchIndex.isReady()).isFalse();
+        assertThat(recipeSearchIndex.search(new RecipeFilterDto(), 0, 10)).isEmpty();
+        verify(recipeRepository, timeout(5000).times(2)).findAll(any(Pageable.class));
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!recipeSearchIndex.isReady() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(search(new RecipeFilterDto()).getRecipeIds()).containsExactly(nonVegan.getId(), vegan.getId());
+    }
+
+    @Test
+    void givenMisspelledIngredient_whenClosestIngredient_shouldReturnIndexedName() {
+        assertThat(recipeSearchIndex.closestIngredient("Lettuse")).contains("lettuce");
+        assertThat(recipeSearchIndex.suggestIngredients("WA", 10)).contains(Collections.singletonList("water"));
+    }
+
+    @Test
+    void givenDeletedRecipe_whenRecipeChanged_shouldForgetItsIngredientNames() {
+        when(recipeRepository.findAllById(anyIterable())).thenReturn(Collections.emptyList());
+
+        recipeSearchIndex.onRecipeChanged(new RecipeChangedEvent(nonVegan.getId()));
+
+        assertThat(recipeSearchIndex.closestIngredient("egg")).isEmpty();
+    }
+
+    @Test
+    void givenClassificationFilter_whenFacets_shouldCountOtherValuesWithoutTheirOwnCriterion() {
+        RecipeFacetsDto facets = recipeSearchIndex.facets(
+                RecipeFilterDto.builder().classification(RecipeClassification.VEGETARIAN).build(), 10).orElseThrow();
+
+        assertThat(facets.getTotal()).isEqualTo(1);
+        assertThat(facets.getClassifications())
+                .containsEntry(RecipeClassification.VEGETARIAN, 1L)
+                .containsEntry(RecipeClassification.NON_VEGETARIAN, 1L);
+        assertThat(facets.getServings()).containsOnly(entry(2L, 1L));
+        assertThat(facets.getIngredients()).containsOnlyKeys("lettuce", "water");
+    }
+
+    @Test
+    void givenTopIngredientsLimit_whenFacets_shouldKeepMostUsedIngredients() {
+        RecipeFacetsDto facets = recipeSearchIndex.facets(new RecipeFilterDto(), 1).orElseThrow();
+
+        assertThat(facets.getTotal()).isEqualTo(2);
+        assertThat(facets.getServings()).containsOnly(entry(1L, 1L), entry(2L, 1L));
+        assertThat(facets.getIngredients()).hasSize(1);
+    }
+
+    private SearchHits search(RecipeFilterDto filter) {
+        return recipeSearchIndex.search(filter, 0, 10).orElseThrow();
+    }
+}
@@ -0,0 +1,58 @@
+package com.nhira.abnrecipeapp.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrigramIndexTest {
+
+    private TrigramIndex trigramIndex;
+
+    @BeforeEach
+    void setUp() {
+        trigramIndex = new TrigramIndex();
+        trigramIndex.add("salmon");
+        trigramIndex.add("salt");
+        trigramIndex.add("smoked salmon");
+        trigramIndex.add("egg");
+    }
+
+    @Test
+    void givenMisspelledTerm_whenClosest_shouldReturnMostSimilarTerm() {
+        assertThat(trigramIndex.closest("salmn")).contains("salmon");
+        assertThat(trigramIndex.closest("eggs")).contains("egg");
+    }
+
+    @Test
+    void givenIndexedTerm_whenClosest_shouldReturnTermItself() {
+        assertThat(trigramIndex.closest("salt")).contains("salt");
+    }
+
+    @Test
+    void givenDissimilarTerm_whenClosest_shouldReturnEmpty() {
+        assertThat(trigramIndex.closest("lettuce")).isEmpty();
+    }
+
+    @Test
+    void givenPrefix_whenComplete_shouldReturnPrefixMatchesBeforeSimilarTerms() {
+        assertThat(trigramIndex.complete("sal", 10)).containsExactly("salmon", "salt");
+        assertThat(trigramIndex.complete("salmn", 10)).containsExactly("salmon", "salt");
+        assertThat(trigramIndex.complete("sal", 1)).containsExactly("salmon");
+    }
+
+    @Test
+    void givenRemovedTerm_whenClosest_shouldNoLongerReturnIt() {
+        trigramIndex.remove("egg");
+
+        assertThat(trigramIndex.closest("eggs")).isEmpty();
+        assertThat(trigramIndex.complete("e", 10)).isEmpty();
+    }
+
+    @Test
+    void givenTerm_whenTrigrams_shouldPadEveryWordLikePgTrgm() {
+        assertThat(TrigramIndex.trigrams("egg")).containsExactlyInAnyOrder("  e", " eg", "egg", "gg ");
+        assertThat(TrigramIndex.trigrams("an egg")).containsExactlyInAnyOrder(
+                "  a", " an", "an ", "  e", " eg", "egg", "gg ");
+    }
+}
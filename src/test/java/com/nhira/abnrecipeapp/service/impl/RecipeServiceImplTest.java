@@ -1,27 +1,57 @@
 package com.nhira.abnrecipeapp.service.impl;
 
+import com.nhira.abnrecipeapp.dto.CursorPageDto;
+import com.nhira.abnrecipeapp.dto.IngredientDto;
+import com.nhira.abnrecipeapp.dto.RecipeBatchDto;
 import com.nhira.abnrecipeapp.dto.RecipeDto;
+import com.nhira.abnrecipeapp.dto.RecipeFacetsDto;
 import com.nhira.abnrecipeapp.dto.RecipeFilterDto;
+import com.nhira.abnrecipeapp.dto.RecipeSummaryDto;
+import com.nhira.abnrecipeapp.dto.ShoppingListDto;
+import com.nhira.abnrecipeapp.dto.ShoppingListItemDto;
+import com.nhira.abnrecipeapp.events.RecipeChangedEvent;
+import com.nhira.abnrecipeapp.exceptions.RecipeConflictException;
 import com.nhira.abnrecipeapp.exceptions.RecipeNotFoundException;
 import com.nhira.abnrecipeapp.mapper.DtoMapper;
+import com.nhira.abnrecipeapp.metrics.RecipeMetrics;
 import com.nhira.abnrecipeapp.model.Recipe;
+import com.nhira.abnrecipeapp.repository.IngredientRepository;
 import com.nhira.abnrecipeapp.repository.RecipeRepository;
+import com.nhira.abnrecipeapp.search.IngredientNameSearch;
+import com.nhira.abnrecipeapp.search.RecipeFullTextSearch;
+import com.nhira.abnrecipeapp.search.RecipeSearchIndex;
+import com.nhira.abnrecipeapp.search.SearchHits;
+import com.nhira.abnrecipeapp.service.api.RecipeChangeService;
 import com.nhira.abnrecipeapp.utils.ApiResponse;
+import com.nhira.abnrecipeapp.utils.RecipeCursor;
+import com.nhira.abnrecipeapp.utils.RecipeFields;
+import com.nhira.abnrecipeapp.utils.enums.ChangeType;
+import com.nhira.abnrecipeapp.utils.enums.RecipeClassification;
 import com.nhira.abnrecipeapp.utils.enums.ResponseCode;
+import com.nhira.abnrecipeapp.utils.enums.UnitOfMeasure;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 
+import java.time.OffsetDateTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static com.nhira.abnrecipeapp.utils.RecipeTestDataUtil.*;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -35,6 +65,29 @@ class RecipeServiceImplTest {
     @Mock
     private RecipeRepository recipeRepository;
 
+    @Mock
+    private RecipeSearchIndex recipeSearchIndex;
+
+    @Mock
+    private RecipeFullTextSearch recipeFullTextSearch;
+
+    @Mock
+    private IngredientNameSearch ingredientNameSearch;
+
+    @Mock
+    private IngredientRepository ingredientRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private RecipeChangeService recipeChangeService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private RecipeMetrics recipeMetrics = new RecipeMetrics(meterRegistry);
+
     @InjectMocks
     private RecipeServiceImpl recipeService;
 
@@ -51,17 +104,23 @@ class RecipeServiceImplTest {
         assertThat(actualResponse.getNarrative()).isEqualTo(ResponseCode.SUCCESS.getDescription());
         assertThat(actualResponse.getBody()).isNotNull();
         assertThat(actualResponse.getBody()).isEqualTo(DtoMapper.MAPPER.toRecipeDto(testRecipe));
-        verify(recipeRepository, times(1)).save(any(Recipe.class));
+        InOrder inOrder = inOrder(recipeRepository, recipeChangeService);
+        inOrder.verify(recipeRepository, times(1)).save(any(Recipe.class));
+        inOrder.verify(recipeRepository, times(1)).flush();
+        inOrder.verify(recipeChangeService, times(1)).record(testRecipe.getId(), ChangeType.CREATED);
         verifyNoMoreInteractions(recipeRepository);
     }
 
     @Test
     void givenRecipeDto_whenUpdateRecipe_shouldUpdateRecipeAndReturnUpdatedRecipe() {
         final Recipe testRecipe = getRecipe(getVeganRecipeDto());
-        when(recipeRepository.findById(anyString())).thenReturn(Optional.of(testRecipe));
-        when(recipeRepository.save(any(Recipe.class))).thenReturn(testRecipe);
+        RecipeDto recipeDto = DtoMapper.MAPPER.toRecipeDto(testRecipe);
+        recipeDto.setVersion(3L);
+        when(recipeRepository.updateIfVersion(eq(testRecipe.getId()), eq(3L), anyString(), anyLong(), any(), anyString(),
+                any(OffsetDateTime.class))).thenReturn(1);
+        when(recipeRepository.getReferenceById(testRecipe.getId())).thenReturn(testRecipe);
 
-        ApiResponse<RecipeDto> actualResponse = recipeService.updateRecipe(DtoMapper.MAPPER.toRecipeDto(testRecipe));
+        ApiResponse<RecipeDto> actualResponse = recipeService.updateRecipe(recipeDto);
 
         assertThat(actualResponse).isNotNull();
         assertThat(actualResponse.isSuccessful()).isTrue();
@@ -69,24 +128,44 @@ class RecipeServiceImplTest {
         assertThat(actualResponse.getNarrative()).isEqualTo(ResponseCode.SUCCESS.getDescription());
         assertThat(actualResponse.getBody()).isNotNull();
         assertThat(actualResponse.getBody()).isEqualTo(DtoMapper.MAPPER.toRecipeDto(testRecipe));
+        assertThat(actualResponse.getBody().getVersion()).isEqualTo(4L);
+
+        verify(ingredientRepository, times(1)).deleteByRecipeId(testRecipe.getId());
+        verify(ingredientRepository, times(1)).saveAll(anyList());
+        verify(eventPublisher, times(1)).publishEvent(new RecipeChangedEvent(testRecipe.getId()));
+        verify(recipeChangeService, times(1)).record(testRecipe.getId(), ChangeType.UPDATED);
+        verify(recipeRepository, never()).findById(anyString());
+        verify(recipeRepository, never()).save(any(Recipe.class));
+    }
 
-        verify(recipeRepository, times(1)).findById(testRecipe.getId());
-        verify(recipeRepository, times(1)).save(any(Recipe.class));
-        verifyNoMoreInteractions(recipeRepository);
+    @Test
+    void givenStaleVersion_whenUpdateRecipe_shouldThrowConflictAndKeepIngredients() {
+        final Recipe testRecipe = getRecipe(getVeganRecipeDto());
+        RecipeDto recipeDto = DtoMapper.MAPPER.toRecipeDto(testRecipe);
+        recipeDto.setVersion(1L);
+        when(recipeRepository.updateIfVersion(eq(testRecipe.getId()), eq(1L), anyString(), anyLong(), any(), anyString(),
+                any(OffsetDateTime.class))).thenReturn(0);
+        when(recipeRepository.existsById(testRecipe.getId())).thenReturn(true);
+
+        assertThrows(RecipeConflictException.class, () -> recipeService.updateRecipe(recipeDto));
+
+        verifyNoInteractions(ingredientRepository, eventPublisher, recipeChangeService);
     }
 
     @Test
     void givenRecipeDtoWithIdThatDoesNotExist_whenUpdateRecipe_shouldThrowExceptionAndNotSaveRecipe() {
         final Recipe testRecipe = getRecipe(getVeganRecipeDto());
-        when(recipeRepository.findById(anyString())).thenReturn(Optional.empty());
+        when(recipeRepository.findCurrentVersion(anyString())).thenReturn(Optional.empty());
 
         assertThrows(RecipeNotFoundException.class, () -> {
             recipeService.updateRecipe(DtoMapper.MAPPER.toRecipeDto(testRecipe));
         });
 
-        verify(recipeRepository, times(1)).findById(testRecipe.getId());
+        verify(recipeRepository, times(1)).findCurrentVersion(testRecipe.getId());
         verify(recipeRepository, times(0)).save(any(Recipe.class));
         verifyNoMoreInteractions(recipeRepository);
+        verifyNoInteractions(ingredientRepository);
+        assertThat(meterRegistry.get(RecipeMetrics.NOT_FOUND).tag("operation", "update").counter().count()).isEqualTo(1);
     }
 
     @Test
@@ -103,6 +182,43 @@ class RecipeServiceImplTest {
         verifyNoMoreInteractions(recipeRepository);
     }
 
+    @Test
+    void givenSummaryFields_whenGetAllRecipes_shouldReadProjectionOnly() {
+        RecipeDto recipeDto = getVeganRecipeDto();
+        RecipeSummaryDto summary = new RecipeSummaryDto(recipeDto.getId(), recipeDto.getName(),
+                recipeDto.getNumberOfServings(), recipeDto.getClassification());
+        when(recipeRepository.findAllSummaries(any(Pageable.class))).thenReturn(new PageImpl<>(Collections.singletonList(summary)));
+
+        Page<Map<String, Object>> recipes = recipeService.getAllRecipes(0, 10, RecipeFields.parse("name,id"));
+
+        assertThat(recipes.getContent()).containsExactly(Map.of("id", recipeDto.getId(), "name", recipeDto.getName()));
+        verify(recipeRepository, never()).findAll(any(Pageable.class));
+    }
+
+    @Test
+    void givenCursor_whenGetAllRecipesByCursor_shouldReadOlderRecipesWithoutCounting() {
+        Recipe testRecipe = getRecipe(getVeganRecipeDto());
+        testRecipe.setDateCreated(OffsetDateTime.parse("2022-12-01T10:15:30Z"));
+        RecipeCursor cursor = new RecipeCursor(OffsetDateTime.parse("2022-12-02T10:15:30Z"), "b");
+        when(recipeRepository.findOlderThan(cursor.getDateCreated(), cursor.getId(), PageRequest.of(0, 1)))
+                .thenReturn(new SliceImpl<>(Collections.singletonList(testRecipe), PageRequest.of(0, 1), true));
+
+        CursorPageDto<RecipeDto> recipes = recipeService.getAllRecipes(cursor.encode(), 1, false);
+
+        assertThat(recipes.getContent()).containsExactly(DtoMapper.MAPPER.toRecipeDto(testRecipe));
+        assertThat(recipes.isHasNext()).isTrue();
+        assertThat(recipes.getTotalElements()).isNull();
+        assertThat(RecipeCursor.decode(recipes.getNextCursor())).isEqualTo(RecipeCursor.of(testRecipe));
+        verify(recipeRepository, times(1)).findOlderThan(cursor.getDateCreated(), cursor.getId(), PageRequest.of(0, 1));
+        verifyNoMoreInteractions(recipeRepository);
+    }
+
+    @Test
+    void givenInvalidCursor_whenGetAllRecipesByCursor_shouldThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> recipeService.getAllRecipes("not-a-cursor", 10, false));
+        verifyNoInteractions(recipeRepository);
+    }
+
     @Test
     void givenRecipeFilterDto_whenFilterRecipes_shouldReturnListOfRecipesThatMatchFilterCriterion() {
         Recipe testRecipe = getRecipe(getVeganRecipeDto());
@@ -126,6 +242,167 @@ class RecipeServiceImplTest {
         verifyNoMoreInteractions(recipeRepository);
     }
 
+    @Test
+    void givenRecipeFilterDto_whenFilterRecipes_shouldTimeItByFilterShapeAndRecordResultSize() {
+        when(recipeRepository.filter(anyString(), anyLong(), anyString(), anyString(), anyBoolean(), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(Collections.singletonList(getRecipe(getVeganRecipeDto()))));
+
+        recipeService.filterRecipes(getFilterDto(), 0, 10);
+
+        assertThat(meterRegistry.get(RecipeMetrics.OPERATIONS)
+                .tags("operation", "find", "shape", "classification+servings+instructions+ingredient")
+                .timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(RecipeMetrics.RESULTS).tag("operation", "find").summary().totalAmount())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get(RecipeMetrics.SEARCH_INDEX).tag("result", "miss").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void givenReadySearchIndex_whenFilterRecipes_shouldLoadMatchedRecipesByIdInIndexOrder() {
+        Recipe older = getRecipe(getVeganRecipeDto());
+        Recipe newer = getRecipe(getNonVeganRecipeDto());
+        RecipeFilterDto filterDto = getFilterDto();
+        when(recipeSearchIndex.search(filterDto, 0, 10))
+                .thenReturn(Optional.of(new SearchHits(Arrays.asList(newer.getId(), older.getId()), 2, false)));
+        when(recipeRepository.findAllById(Arrays.asList(newer.getId(), older.getId())))
+                .thenReturn(Arrays.asList(older, newer));
+
+        Page<RecipeDto> recipes = recipeService.filterRecipes(filterDto, 0, 10);
+
+        assertThat(recipes.getTotalElements()).isEqualTo(2);
+        assertThat(recipes.getContent()).extracting(RecipeDto::getId).containsExactly(newer.getId(), older.getId());
+        verify(recipeRepository, times(1)).findAllById(Arrays.asList(newer.getId(), older.getId()));
+        verifyNoMoreInteractions(recipeRepository);
+    }
+
+    @Test
+    void givenFullTextSearchHits_whenFilterRecipes_shouldReturnRankedRecipesWithoutSearchIndex() {
+        Recipe best = getRecipe(getNonVeganRecipeDto());
+        Recipe other = getRecipe(getVeganRecipeDto());
+        RecipeFilterDto filterDto = getFilterDto();
+        when(recipeFullTextSearch.search(filterDto, 0, 10))
+                .thenReturn(Optional.of(new SearchHits(Arrays.asList(best.getId(), other.getId()), 2, false)));
+        when(recipeRepository.findAllById(Arrays.asList(best.getId(), other.getId())))
+                .thenReturn(Arrays.asList(other, best));
+
+        Page<RecipeDto> recipes = recipeService.filterRecipes(filterDto, 0, 10);
+
+        assertThat(recipes.getTotalElements()).isEqualTo(2);
+        assertThat(recipes.getContent()).extracting(RecipeDto::getId).containsExactly(best.getId(), other.getId());
+        verifyNoInteractions(recipeSearchIndex);
+    }
+
+    @Test
+    void givenFuzzyIngredient_whenFilterRecipes_shouldFilterOnClosestIngredientName() {
+        RecipeFilterDto filterDto = getFilterDto();
+        filterDto.setIngredientName("eggs");
+        filterDto.setFuzzyIngredient(true);
+        when(ingredientNameSearch.closest("eggs")).thenReturn(Optional.of("egg"));
+        when(recipeSearchIndex.search(any(RecipeFilterDto.class), eq(0), eq(10)))
+                .thenReturn(Optional.of(new SearchHits(Collections.emptyList(), 0, false)));
+
+        recipeService.filterRecipes(filterDto, 0, 10);
+
+        verify(recipeSearchIndex).search(argThat(filter -> "egg".equals(filter.getIngredientName())), eq(0), eq(10));
+    }
+
+    @Test
+    void givenSearchIndexNotReady_whenGetFacets_shouldCountWithGroupedQueries() {
+        RecipeFilterDto filterDto = RecipeFilterDto.builder()
+                .classification(RecipeClassification.VEGETARIAN)
+                .ingredientName("")
+                .instructionSearch("")
+                .build();
+        when(recipeRepository.countByClassification(isNull(), eq(0L), eq(""), eq(""), eq(false)))
+                .thenReturn(Collections.singletonList(new Object[]{RecipeClassification.VEGETARIAN, 3L}));
+        when(recipeRepository.countByNumberOfServings(eq("VEGETARIAN"), eq(0L), eq(""), eq(""), eq(false)))
+                .thenReturn(Collections.singletonList(new Object[]{2L, 3L}));
+        when(recipeRepository.countByIngredient(eq("VEGETARIAN"), eq(0L), eq(""), eq(""), eq(false), any(Pageable.class)))
+                .thenReturn(Arrays.asList(new Object[]{"lettuce", 3L}, new Object[]{"water", 1L}));
+        when(recipeRepository.countFilter("VEGETARIAN", 0L, "", "", false)).thenReturn(3L);
+
+        RecipeFacetsDto facets = recipeService.getFacets(filterDto, 2).getBody();
+
+        assertThat(facets.getTotal()).isEqualTo(3);
+        assertThat(facets.getClassifications())
+                .containsEntry(RecipeClassification.VEGETARIAN, 3L)
+                .containsEntry(RecipeClassification.NON_VEGETARIAN, 0L);
+        assertThat(facets.getServings()).containsExactly(Map.entry(2L, 3L));
+        assertThat(facets.getIngredients()).containsExactly(Map.entry("lettuce", 3L), Map.entry("water", 1L));
+        assertThat(meterRegistry.get(RecipeMetrics.SEARCH_INDEX).tag("result", "miss").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void givenPlannedRecipes_whenGetShoppingList_shouldScaleMergeAndConvertIngredients() {
+        when(recipeRepository.findIngredientQuantities(Arrays.asList("pancakes", "omelette", "unknown")))
+                .thenReturn(Arrays.asList(
+                        new Object[]{"pancakes", 4L, "Flour", "flour", 300.0, UnitOfMeasure.GRAM},
+                        new Object[]{"pancakes", 4L, "Oil", "oil", 1.0, UnitOfMeasure.TABLESPOON},
+                        new Object[]{"pancakes", 4L, "Egg", "egg", 2.0, UnitOfMeasure.UNIT},
+                        new Object[]{"omelette", 1L, "egg ", "egg", 3.0, UnitOfMeasure.UNIT},
+                        new Object[]{"omelette", 1L, "oil", "oil", 1.0, UnitOfMeasure.TEASPOON},
+                        new Object[]{"omelette", 1L, "flour", "flour", 0.5, UnitOfMeasure.KILOGRAM}));
+
+        ShoppingListDto shoppingList = recipeService.getShoppingList(Arrays.asList(
+                new ShoppingListItemDto("pancakes", 8),
+                new ShoppingListItemDto("omelette", 1),
+                new ShoppingListItemDto("unknown", 2))).getBody();
+
+        assertThat(shoppingList.getIngredients()).containsExactly(
+                new IngredientDto("Flour", 1.1, UnitOfMeasure.KILOGRAM),
+                new IngredientDto("Oil", 2.33, UnitOfMeasure.TABLESPOON),
+                new IngredientDto("Egg", 7, UnitOfMeasure.UNIT));
+        assertThat(shoppingList.getMissingIds()).containsExactly("unknown");
+        verify(recipeRepository, times(1)).findIngredientQuantities(anyCollection());
+    }
+
+    @Test
+    void givenKitchenAndMetricMeasures_whenGetShoppingList_shouldAddThemUpInMetricUnits() {
+        when(recipeRepository.findIngredientQuantities(Arrays.asList("soup", "salad")))
+                .thenReturn(Arrays.asList(
+                        new Object[]{"soup", 2L, "Water", "water", 1.5, UnitOfMeasure.LITRE},
+                        new Object[]{"salad", 2L, null, null, null, null},
+                        new Object[]{"soup", 2L, "Water", "water", 2.0, UnitOfMeasure.CUP}));
+
+        ShoppingListDto shoppingList = recipeService.getShoppingList(Arrays.asList(
+                new ShoppingListItemDto("soup", 1),
+                new ShoppingListItemDto("salad", 4),
+                new ShoppingListItemDto("soup", 1))).getBody();
+
+        assertThat(shoppingList.getIngredients()).containsExactly(
+                new IngredientDto("Water", 2, UnitOfMeasure.LITRE));
+        assertThat(shoppingList.getMissingIds()).isEmpty();
+    }
+
+    @Test
+    void givenIngredientsWithoutUnit_whenGetShoppingList_shouldAddThemUpWithoutAUnit() {
+        when(recipeRepository.findIngredientQuantities(Arrays.asList("soup", "salad")))
+                .thenReturn(Arrays.asList(
+                        new Object[]{"soup", 2L, "Salt", "salt", 1.0, null},
+                        new Object[]{"soup", 2L, "Salt", "salt", 5.0, UnitOfMeasure.GRAM},
+                        new Object[]{"salad", 1L, "salt", "salt", 0.5, null}));
+
+        ShoppingListDto shoppingList = recipeService.getShoppingList(Arrays.asList(
+                new ShoppingListItemDto("soup", 4),
+                new ShoppingListItemDto("salad", 1))).getBody();
+
+        assertThat(shoppingList.getIngredients()).containsExactly(
+                new IngredientDto("Salt", 10, UnitOfMeasure.GRAM),
+                new IngredientDto("Salt", 2.5, null));
+    }
+
+    @Test
+    void givenPrefix_whenSuggestIngredients_shouldReturnSuggestedNames() {
+        when(ingredientNameSearch.suggest("sal", 5)).thenReturn(Arrays.asList("salmon", "salt"));
+
+        ApiResponse<List<String>> response = recipeService.suggestIngredients("sal", 5);
+
+        assertThat(response.getResponseCode()).isEqualTo(ResponseCode.SUCCESS);
+        assertThat(response.getBody()).containsExactly("salmon", "salt");
+    }
+
     @Test
     void givenRecipeID_whenGetRecipe_shouldReturnRecipe() {
         Recipe testRecipe = getRecipe(getVeganRecipeDto());
@@ -158,6 +435,38 @@ class RecipeServiceImplTest {
         verifyNoMoreInteractions(recipeRepository);
     }
 
+    @Test
+    void givenRecipeIds_whenGetRecipes_shouldReturnFoundRecipesInRequestOrderAndMissingIds() {
+        Recipe vegan = getRecipe(getVeganRecipeDto());
+        Recipe nonVegan = getRecipe(getNonVeganRecipeDto());
+        List<String> ids = Arrays.asList(nonVegan.getId(), "unknown", vegan.getId(), nonVegan.getId());
+        when(recipeRepository.findAllById(Arrays.asList(nonVegan.getId(), "unknown", vegan.getId())))
+                .thenReturn(Arrays.asList(vegan, nonVegan));
+
+        ApiResponse<RecipeBatchDto> actualResponse = recipeService.getRecipes(ids);
+
+        assertThat(actualResponse.isSuccessful()).isTrue();
+        assertThat(actualResponse.getBody().getRecipes()).extracting(RecipeDto::getId)
+                .containsExactly(nonVegan.getId(), vegan.getId());
+        assertThat(actualResponse.getBody().getMissingIds()).containsExactly("unknown");
+        verifyNoMoreInteractions(recipeRepository);
+    }
+
+    @Test
+    void givenMoreIdsThanOneChunk_whenGetRecipes_shouldQueryInChunks() {
+        List<String> ids = IntStream.range(0, RecipeServiceImpl.BATCH_GET_CHUNK_SIZE + 1)
+                .mapToObj(String::valueOf)
+                .collect(Collectors.toList());
+        when(recipeRepository.findAllById(anyIterable())).thenReturn(Collections.emptyList());
+
+        ApiResponse<RecipeBatchDto> actualResponse = recipeService.getRecipes(ids);
+
+        assertThat(actualResponse.getBody().getMissingIds()).hasSize(ids.size());
+        verify(recipeRepository, times(1)).findAllById(ids.subList(0, RecipeServiceImpl.BATCH_GET_CHUNK_SIZE));
+        verify(recipeRepository, times(1)).findAllById(ids.subList(RecipeServiceImpl.BATCH_GET_CHUNK_SIZE, ids.size()));
+        verifyNoMoreInteractions(recipeRepository);
+    }
+
     @Test
     void givenRecipeID_whenDeleteRecipe_shouldDeleteOneRecipe() {
         Recipe testRecipe = getRecipe(getVeganRecipeDto());
@@ -174,7 +483,10 @@ class RecipeServiceImplTest {
         assertThat(actualResponse.getBody()).isEqualTo(DtoMapper.MAPPER.toRecipeDto(testRecipe));
 
         verify(recipeRepository, times(1)).findById(anyString());
-        verify(recipeRepository, times(1)).delete(any(Recipe.class));
+        InOrder inOrder = inOrder(recipeRepository, recipeChangeService);
+        inOrder.verify(recipeRepository, times(1)).delete(any(Recipe.class));
+        inOrder.verify(recipeRepository, times(1)).flush();
+        inOrder.verify(recipeChangeService, times(1)).record(testRecipe.getId(), ChangeType.DELETED);
         verifyNoMoreInteractions(recipeRepository);
     }
 